@@ -0,0 +1,139 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+public class AsyncConsoleAppender {
+    private static final int BATCH_CHARS = 8192; //written to the console in one call
+
+    private final String[] slots;
+    private final AtomicLongArray published; //sequence + 1 once a slot holds message number sequence
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); //next sequence to claim, shared by all producers
+    private volatile long head = 0; //next sequence to take from the ring, only advanced by the writer thread
+    private volatile long printed = 0; //every sequence below this has reached System.out
+    private volatile boolean writerParked = false; //set by the writer before it blocks on an empty ring
+    private final Object progress = new Object(); //producers waiting for a free slot and flush() callers wait on this
+    private volatile int waiters = 0; //threads waiting on progress, so the writer only notifies when someone waits
+    private final Thread writerThread;
+
+    public AsyncConsoleAppender(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        this.slots = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        writerThread = new Thread(this::writeMessages, "console-appender");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // queues a line without touching System.out; waits only if the writer has fallen a whole buffer behind
+    public void append(String message) {
+        long sequence = tail.getAndIncrement();
+        if (sequence - head >= slots.length) {
+            awaitProgress(() -> sequence - head < slots.length); // buffer full, wait rather than drop trace output
+        }
+        int index = (int) sequence & mask;
+        slots[index] = message;
+        published.set(index, sequence + 1); // hands the slot to the writer
+        if (writerParked) {
+            LockSupport.unpark(writerThread); // the ring was empty, the writer is asleep
+        }
+    }
+
+    // waits until every line queued so far has been printed
+    public void flush() {
+        long target = tail.get();
+        awaitProgress(() -> printed >= target);
+        System.out.flush();
+    }
+
+    // blocks until the writer has moved far enough; waiters is raised before the check and the writer reads it
+    // after moving on, so either the check passes or the writer sees the waiter and notifies it
+    private void awaitProgress(BooleanSupplier done) {
+        boolean interrupted = false;
+        synchronized (progress) {
+            waiters++;
+            try {
+                while (!done.getAsBoolean()) {
+                    try {
+                        progress.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true; // a stopping player still gets its line out
+                    }
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void signalProgress() {
+        if (waiters > 0) {
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+
+    // prints queued lines in batches, so System.out is locked once per batch instead of once per line
+    private void writeMessages() {
+        StringBuilder batch = new StringBuilder(BATCH_CHARS);
+        while (true) {
+            long sequence = head;
+            int index = (int) sequence & mask;
+            if (published.get(index) == sequence + 1) {
+                batch.append(slots[index]).append(System.lineSeparator());
+                slots[index] = null;
+                head = sequence + 1; // frees the slot for producers
+                signalProgress();
+                if (batch.length() >= BATCH_CHARS) {
+                    print(batch);
+                }
+            } else if (batch.length() > 0) {
+                print(batch); // nothing more queued right now, show what we have
+            } else {
+                // nothing to do: announce the park, then check once more, so a line published before a producer
+                // could see writerParked is not left waiting; unparked by the next append()
+                writerParked = true;
+                if (published.get(index) != sequence + 1) {
+                    LockSupport.park(this);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    private void print(StringBuilder batch) {
+        PrintStream out = System.out; // looked up each time, callers may redirect the console
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+        printed = head;
+        signalProgress();
+    }
+}
+
+/*
+Asynchronous console output for verbose logging
+Player and deck threads put lines into a bounded multi-producer ring buffer and return straight away,
+a single daemon thread prints them in batches. Without it every traced card move would take the
+System.out lock on the player's thread, serialising all players on the console.
+Nothing spins: an idle writer parks until the next line is published, and producers facing a full ring
+or callers of flush() wait on a monitor that the writer only touches when someone is waiting.
+
+Attributes:
+slots / published: the ring buffer and the sequence number each slot currently holds
+tail: next sequence handed to a producer
+head: next sequence the writer will take
+printed: how far the console output has got, used by flush()
+Methods:
+append(String message): queues a line
+flush(): blocks until everything queued has been printed
+*/
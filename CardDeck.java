@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import player.card.Card;
 
 public class CardDeck {
@@ -11,6 +12,16 @@ public class CardDeck {
         Collections.shuffle(deck); // shuffles deck to make order random
     }
 
+    // shuffles with a fixed seed so a game can be dealt again exactly, null behaves like the constructor above
+    public CardDeck(ArrayList<Card> deck, Long seed) {
+        this.deck = deck;
+        if (seed == null) {
+            Collections.shuffle(deck);
+        } else {
+            Collections.shuffle(deck, new Random(seed));
+        }
+    }
+
     public List<Card> getDeck(){
         return deck;
     }
@@ -30,6 +41,7 @@ Attributes:
 deck: ArrayList<Card> that will hold a full set of cards for the game
 Methods: 
 CardDeck(int numPlayers): constructor that initialises the deck with 8 * numPlayers cards in a round-robin manner (loop)
+CardDeck(ArrayList<Card> deck, Long seed): same, but with a repeatable shuffle
 initializeDeck(int numPlayers): distribute deck with required number of cards in a loop
 getDeck(): returns list of Card objects
 drawCard(): allows players to draw card
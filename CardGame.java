@@ -1,18 +1,56 @@
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import player.card.Card;
 
 public class CardGame {
+    public static final int MAX_PLAYERS = Integer.MAX_VALUE / 8; // the pack of 8 cards per player must fit in an int
     private int value; //num of players and decks
-    private List<Player> players = new ArrayList<>(); //list of players in game
-    private List<Deck> decks = new ArrayList<>(); //list of decks, one for each player
+    private final List<Player> players; //list of players in game
+    private final List<Deck> decks; //list of decks, one for each player
+    private final GameConfig config; //options chosen for this game
+    private DeckPersister persister; //batches deck file saves, null when saving on every move
+    private final TurnLogger turnLogger; //writes every player's log on one background thread
+    private final GameCompletion completion = new GameCompletion(); //released when a player wins
+    private ExecutorService playerExecutor; //runs the players, created when the game starts
+    private MoveRecorder recorder; //records the deal and every move, null when not recording
+    private GameMetrics metrics; //null unless -Dcardgame.metrics=true
+    private GameMonitor monitor; //null unless -Dcardgame.monitorMs is set
+    private boolean ready = false; //dealt from a valid pack, so the game can start
+    private boolean finalized = false; //finalizeGame() is public, the final saves happen only once
 
     public CardGame(int numPlayers, CardDeck cardDeck){
+        this(numPlayers, cardDeck, new GameConfig());
+    }
+
+    // deals the cards and plays the whole game before returning
+    public CardGame(int numPlayers, CardDeck cardDeck, GameConfig config){
+        this(numPlayers, cardDeck, config, true);
+    }
+
+    private CardGame(int numPlayers, CardDeck cardDeck, GameConfig config, boolean play) {
         this.value = numPlayers;
+        this.players = new ArrayList<>(numPlayers);
+        this.decks = new ArrayList<>(numPlayers);
+        this.config = config;
+        this.turnLogger = new TurnLogger(config.isFileOutput(), config.getLogDirectory(), config.isMappedOutput());
         setupGame(cardDeck);
+        if (play) {
+            start();
+            awaitEnd();
+        }
+    }
+
+    // deals the cards but leaves the players waiting; start() and awaitEnd() run the game, and snapshot()
+    // can watch it in between
+    public static CardGame prepare(int numPlayers, CardDeck cardDeck, GameConfig config) {
+        return new CardGame(numPlayers, cardDeck, config, false);
     }
 
     private boolean validatePack(List<Card> pack) {
@@ -21,18 +59,39 @@ public class CardGame {
     
     private void setupGame(CardDeck cardDeck) {
         if (!validatePack(cardDeck.getDeck())) {
-            System.out.println("Invalid pack file. Please check the file and try again.");
+            GameLog.warn("Invalid pack file. Please check the file and try again.");
             return;
         }
+        prepareOutputFiles(); // folders and player logs in one step, before any player thread exists
         createDeck(value); // create decks for the players
+        createPersister(); // batch deck saves off the players' hot path
         createPlayers(value); //create players
+        createMetrics(); // instrument decks and players when asked to
         distributeInitialCards(cardDeck.getDeck()); //distributes initial hands to players, fills each deck with remaining cards
-        startGame(); //start game
+        ready = true;
+    }
+
+    // the deck files follow in one pass too, with the save right after dealing
+    private void prepareOutputFiles() {
+        if (!config.isFileOutput()) {
+            return;
+        }
+        new File(config.getDeckDirectory()).mkdirs();
+        new File(config.getLogDirectory()).mkdirs();
+        turnLogger.openLogs(1, value);
     }
 
     private void createDeck(int numPlayers){
+        DeckArena arena = config.newDeckArena(numPlayers); // one off-heap buffer for all decks, null for on-heap decks
         for (int i = 0; i < numPlayers; i++) {
-            decks.add(new Deck(i+1)); // create a new deck for each player
+            decks.add(config.newDeck(i + 1, arena)); // create a new deck of the configured type for each player
+        }
+    }
+
+    private void createPersister() {
+        if (config.isFileOutput() && config.getPersistIntervalMillis() >= 0) {
+            persister = new DeckPersister(decks, config.getPersistIntervalMillis());
+            decks.forEach(deck -> deck.setPersister(persister));
         }
     }
 
@@ -40,35 +99,58 @@ public class CardGame {
         for (int i = 0; i < numPlayers; i++){
             Deck lefDeck = decks.get(i);
             Deck righDeck = decks.get((i + 1) % numPlayers); 
-            Player player = new Player(i + 1, lefDeck, righDeck); //preferred value is set as id
+            Player player = new Player(i + 1, lefDeck, righDeck, turnLogger, completion, config.isParkWhenIdle()); //preferred value is set as id
+            player.setDiscardStrategy(config.newDiscardStrategy(i + 1, numPlayers));
             players.add(player);
         }
     }
 
+    private void createMetrics() {
+        if (config.isMetrics()) {
+            metrics = new GameMetrics(value);
+            metrics.register();
+            decks.forEach(deck -> deck.setMetrics(metrics));
+            players.forEach(player -> player.setMetrics(metrics));
+        }
+    }
+
     private void distributeInitialCards(List<Card> cardDeck) {
-        // distribute 4 cards to each player
-        for (Player player : players) {
-            for (int i = 0; i < 4; i++) {
-                if (!cardDeck.isEmpty()) {
-                    Card card = cardDeck.remove(0);
-                    player.addCardToHand(card);
-                    System.out.println("Dealt card " + card.getValue() + " to Player " + player.getId());
-                }
-            }
+        // read the shuffled pack once by index instead of removing from the front of the list
+        int[] pack = new int[cardDeck.size()];
+        for (int i = 0; i < pack.length; i++) {
+            pack[i] = cardDeck.get(i).getValue();
         }
-    
-        // distribute remaining cards to each deck
-        int deckIndex = 0;
-        while (!cardDeck.isEmpty()) {
-            Deck deck = decks.get(deckIndex);
-            Card card = cardDeck.remove(0);
-            deck.addBottomCard(card);
-            deckIndex = (deckIndex + 1) % decks.size(); // rotate to the next deck
+        cardDeck.clear(); // the pack is used up by dealing, as before
+        if (config.getRecordFile() != null) {
+            recorder = new MoveRecorder(value, pack);
+            players.forEach(player -> player.setRecorder(recorder));
         }
+
+        // distribute 4 cards to each player, player 1 takes the first 4 cards and so on
+        int numPlayers = players.size();
+        for (int p = 0; p < numPlayers; p++) {
+            players.get(p).addValuesToHand(pack, 4 * p, 4);
+        }
+
+        // distribute remaining cards to each deck in rotation, card k of the remainder goes to deck k % numPlayers
+        int dealt = 4 * numPlayers;
+        int perDeck = (pack.length - dealt) / numPlayers;
+        int[] deckCards = new int[perDeck];
+        for (int d = 0; d < numPlayers; d++) {
+            for (int k = 0; k < perDeck; k++) {
+                deckCards[k] = pack[dealt + d + k * numPlayers];
+            }
+            decks.get(d).addBottomValues(deckCards, perDeck);
+        }
+        GameLog.info("Dealt 4 cards to each of " + numPlayers + " players and " + perDeck + " cards to each deck.");
     
-        // save the state of each deck
-        for (Deck deck : decks) {
-            deck.saveDeckToFile();
+        // save the state of each deck, once per deck
+        if (persister != null) {
+            persister.saveAll();
+        } else {
+            for (Deck deck : decks) {
+                deck.saveDeckToFile();
+            }
         }
     }
     
@@ -76,25 +158,138 @@ public class CardGame {
     //     players.forEach(Player::start); //start each player in a separate thread
     // }
 
-    private void startGame() {
-        players.forEach(player -> {
-            if (player.getState() == Thread.State.NEW) { // Only start threads that are in the NEW state
-                player.start();
-            }
-        });
-    
-        // Wait for a winner
-        while (!Player.hasGameEnded()) {
-            // Busy-wait until a player wins
+    // starts the players and returns straight away; lockstep rounds run on a player thread of their own
+    public synchronized void start() {
+        if (!ready || playerExecutor != null) { // only start the players once
+            return;
+        }
+        startMetrics();
+        playerExecutor = config.newPlayerExecutor();
+        if (config.isLockstep()) {
+            playerExecutor.execute(this::playLockstep);
+            return;
+        }
+        boolean cooperative = config.isCooperative();
+        players.forEach(player -> player.startOn(playerExecutor, cooperative));
+    }
+
+    // waits until someone wins or the game is stopped, then stops the players and writes the final files
+    public void awaitEnd() {
+        start();
+        if (!ready) {
+            return;
+        }
+        // Wait for a winner without spinning
+        try {
+            completion.awaitWinner();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     
-        // Interrupt all threads after a winner is declared
-        players.forEach(Thread::interrupt);
-        System.out.println("Game has ended. Interrupting all players.");
-    }    
+        // Interrupt all players after a winner is declared
+        playerExecutor.shutdownNow();
+        GameLog.info("Game has ended. Interrupting all players.");
+
+        // wait for every player to stop moving cards, then write the final deck files
+        try {
+            if (!playerExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                GameLog.warn("Players did not stop within 30 seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finalizeGame();
+    }
+
+    // ends a running game without a winner, e.g. one nobody can win; awaitEnd() then returns as usual
+    public void stop() {
+        completion.abandon();
+    }
+
+    // plays the whole game on one thread, one turn per player per round in id order, so a seed fixes the outcome
+    private void playLockstep() {
+        players.forEach(Player::begin);
+        boolean moved = true;
+        while (!completion.isFinished() && moved) {
+            moved = false;
+            for (Player player : players) {
+                moved |= player.step();
+                if (completion.isFinished()) {
+                    break;
+                }
+            }
+        }
+        if (!completion.isFinished()) {
+            GameLog.warn("No player can move, the game is stuck.");
+            completion.abandon(); // nothing left to wait for
+        }
+    }
+
+    private void startMetrics() {
+        if (metrics != null) {
+            metrics.gameStarted();
+        }
+        if (config.getMonitorIntervalMillis() > 0) {
+            monitor = new GameMonitor(this, config.getMonitorIntervalMillis());
+            monitor.start();
+        }
+    }
+
+    // every hand and deck, read while the players keep playing; check isConsistent() on a busy game
+    public GameSnapshot snapshot() {
+        return snapshot(null);
+    }
+
+    // the same, copying only what changed since previous (null for a full snapshot), for frequent polling
+    public GameSnapshot snapshot(GameSnapshot previous) {
+        return GameSnapshot.take(players, decks, completion.getWinnerId(), previous);
+    }
+
+    // the metrics of this game, null unless metrics were turned on
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    // the move recording of this game, null unless recording was turned on
+    public MoveRecorder getRecorder() {
+        return recorder;
+    }
+
+    // id of the winning player, 0 if the game has not finished
+    public int getWinnerId() {
+        return completion.getWinnerId();
+    }
+
+    // turns played by all players, only meaningful once the game has finished
+    public long getTotalTurns() {
+        long total = 0;
+        for (Player player : players) {
+            total += player.getTurnCount();
+        }
+        return total;
+    }
+
+    // turns played by the winner, 0 if the game has not finished
+    public int getWinnerTurns() {
+        int winnerId = completion.getWinnerId();
+        return winnerId == 0 ? 0 : players.get(winnerId - 1).getTurnCount();
+    }
+
+    // the players in id order, for checks once the game has finished
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    // the decks in deck number order, for checks once the game has finished
+    public List<Deck> getDecks() {
+        return Collections.unmodifiableList(decks);
+    }
 
     public void displayGameState() {
-        System.out.println("Current game state: " + players.size() + " players in the game.");
+        GameLog.info("Current game state: " + players.size() + " players in the game.");
+        if (GameLog.isDebugEnabled()) {
+            GameLog.debug(snapshot().summary());
+        }
     }
 
     public static int checkNumOfPlayers(Scanner inputScanner) {
@@ -138,72 +333,95 @@ public class CardGame {
                 continue;
             }
 
-            // Validate file contents
-            try (Scanner fileScanner = new Scanner(packFile)) {
-                int lineCount = 0;
-
-                ArrayList<Card> deck = new ArrayList<>();
-
-                while (fileScanner.hasNextLine()) {
-                    String line = fileScanner.nextLine();
-                    lineCount++;
-
-                    // Ensure each line is a positive integer
-                    try {
-                        int value = Integer.parseInt(line);
-                        if (value < 0) {
-                            System.out.println("File contains a negative number. Try again.");
-                            continue;
-                        }
-                        deck.add(new Card(value));
-                    } catch (NumberFormatException e) {
-                        System.out.println("File contains invalid input: " + line + ". Try again.");
-                        continue;
-                    }
-                }
-
-                // Check if the line count matches the expected value
-                if (lineCount != 8 * players) {
-                    System.out.println("File must contain exactly " + (8 * players) + " lines. Try again.");
-                    continue;
-                }
-
-                // If all validations pass, return the file
-                return deck;
-
-            } catch (FileNotFoundException e) {
+            // Validate file contents, reporting the first bad line
+            try {
+                return PackLoader.loadCards(packFile.toPath(), players);
+            } catch (InvalidPackException e) {
+                System.out.println(e.getMessage() + " Try again.");
+            } catch (IOException e) {
                 System.out.println("Error reading the file. Try again.");
             }
         }
     }
 
+    // the player count of a scripted run, 0 if it is not a number from 1 to MAX_PLAYERS
+    private static int parsePlayersArgument(String players) {
+        try {
+            int numPlayers = Integer.parseInt(players);
+            return numPlayers <= MAX_PLAYERS ? Math.max(numPlayers, 0) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // checks the arguments of a scripted run, exits with a message instead of prompting again
+    private static ArrayList<Card> loadPackArgument(String packFile, int numPlayers) {
+        try {
+            return PackLoader.loadCards(Path.of(packFile), numPlayers);
+        } catch (InvalidPackException e) {
+            System.err.println("Invalid pack file: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error reading the pack file " + packFile + ": " + e.getMessage());
+        }
+        System.exit(1);
+        return null;
+    }
+
     /**
-     * @param args
+     * @param args none to be asked for the player count and pack, or {@code <players> <pack file> [output dir]}
+     *             to start straight away; the deck files then go to {@code <output dir>/output} and the player logs
+     *             to {@code <output dir>}
      */
     public static void main(String[] args) {
-        Scanner inputScanner = new Scanner(System.in);
+        GameConfig config;
+        try {
+            config = GameConfig.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid -Dcardgame option: " + e.getMessage()); // before any card is dealt
+            System.exit(1);
+            return;
+        }
+        int numPlayers;
+        ArrayList<Card> pack;
+        if (args.length > 0) {
+            numPlayers = args.length >= 2 && args.length <= 3 ? parsePlayersArgument(args[0]) : 0;
+            if (numPlayers <= 0) {
+                System.err.println("Usage: java CardGame [<players> <pack file> [output dir]]");
+                System.err.println("<players> must be a whole number from 1 to " + MAX_PLAYERS + ".");
+                System.exit(1);
+            }
+            pack = loadPackArgument(args[1], numPlayers);
+            if (args.length == 3) {
+                config.setOutputDirectory(args[2]);
+            }
+        } else {
+            Scanner inputScanner = new Scanner(System.in);
     
-        // try {
             // get the number of players
-            int numPlayers = checkNumOfPlayers(inputScanner);
+            numPlayers = checkNumOfPlayers(inputScanner);
 
             // get the valid input pack
-            ArrayList<Card> pack = getValidatedPackFile(inputScanner, numPlayers);
+            pack = getValidatedPackFile(inputScanner, numPlayers);
+        }
     
+        // try {
             // initialize the card deck
-            CardDeck cardDeck = new CardDeck(pack); // no file needed, generates cards programmatically
+            CardDeck cardDeck = new CardDeck(pack, config.getSeed()); // -Dcardgame.seed makes the shuffle repeatable
     
-            //create and set up the card game
-            CardGame cardGame = new CardGame(numPlayers, cardDeck);
+            //create and set up the card game, -Dcardgame.deck=ring or =offheap selects the ring buffer decks
+            CardGame cardGame = CardGame.prepare(numPlayers, cardDeck, config);
     
             // display initial game state
             cardGame.displayGameState();
     
             // start game
-            System.out.println("The game has started with " + numPlayers + " players.");
-            cardGame.startGame();
+            GameLog.report("The game has started with " + numPlayers + " players.");
+            cardGame.start();
+            cardGame.awaitEnd();
 
-            System.out.println("The game has ended. Thank you for playing!");
+            cardGame.reportResult();
+            GameLog.report("The game has ended. Thank you for playing!");
+            GameLog.flush();
         // } catch (Exception e) {
         //    System.err.println("An error occurred during game setup: " + e.getMessage());
         //    e.printStackTrace();;
@@ -214,8 +432,54 @@ public class CardGame {
     }
 
     public void finalizeGame() {
-        decks.forEach(Deck::saveDeckToFile);
-        System.out.println("Final deck states saved.");
+        if (finalized) {
+            return;
+        }
+        finalized = true;
+        if (monitor != null) {
+            monitor.stop();
+        }
+        if (metrics != null) {
+            metrics.gameFinished(); // stop the clock before the final saves
+        }
+        int winnerId = completion.getWinnerId();
+        players.forEach(player -> player.exitGame(winnerId)); // the players have stopped, losers log their exit
+        turnLogger.close(); // flush and close the player logs
+        if (persister != null) {
+            persister.close(); // stops batched saves and writes every deck once
+        } else {
+            decks.forEach(Deck::saveDeckToFile);
+        }
+        decks.forEach(Deck::closeOutput); // mapped deck files are written out at their final size
+        GameLog.info("Final deck states saved.");
+        saveRecording();
+        if (metrics != null) {
+            metrics.unregister();
+        }
+    }
+
+    // the outcome and the metrics summary if it was turned on, for the person who started the game
+    private void reportResult() {
+        int winnerId = completion.getWinnerId();
+        if (winnerId > 0) {
+            GameLog.report("Player " + winnerId + " won after " + getWinnerTurns() + " turns of their own.");
+        }
+        if (metrics != null) {
+            GameLog.report(metrics.getSummary().trim());
+        }
+    }
+
+    private void saveRecording() {
+        if (recorder == null) {
+            return;
+        }
+        recorder.recordWinner(completion.getWinnerId());
+        try {
+            recorder.saveTo(Path.of(config.getRecordFile()));
+            GameLog.info("Recorded " + recorder.getMoveCount() + " moves to " + config.getRecordFile());
+        } catch (IOException e) {
+            GameLog.error("Error saving the move recording to " + config.getRecordFile(), e);
+        }
     }    
 }
 
@@ -230,12 +494,19 @@ value: integer that will represent number of player and decks
 players: list of Player objects - represents each player in the game
 Methods: 
 CardGame(int numPlayers, String CardDeck)
+snapshot(GameSnapshot previous): live view of all hands and decks, incremental when given the last one
+prepareOutputFiles(): creates the output folders and every player log before the players start
 createDeck(int numPlayers): ozoos 1 deck per player
 createPlayers(int numPlayers): gives each player their right and left decks 
 distributeInitialCards(): distributes initial hands to players, fills each deck with remaining cards
-startGame(): starts game
+prepare(...): deals without starting, for callers that watch the game while it runs
+start(): starts the players and returns
+awaitEnd(): waits for the end and writes the final files
+stop(): ends the game with no winner
+playLockstep(): runs the players in a fixed round order on one thread (-Dcardgame.executor=lockstep)
 
 main: 
 requests num of players in game
 location of valid input pack
+or takes both (and an output folder) as arguments, without prompting
 */
\ No newline at end of file
@@ -1,52 +1,214 @@
 import player.card.Card;
-import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.IntUnaryOperator;
+
+public class Deck implements DiscardPile {
+    public static final int EMPTY = -1; //returned by drawTopValue() when there is no card, pack values are never negative
 
-public class Deck {
     private final int deckNumber;
-    private final List<Card> deckCards = new ArrayList<>(); //dynamic list for deck cards
+    private final String directory; //folder holding the deck's output file
+    private final boolean fileOutput; //false when deck files are stubbed out
+    private final IntDeque deckCards = new IntDeque(8); //card values, top of the deck first
+    private volatile DeckPersister persister; //when set, file saves are batched off the hot path
+    private volatile MappedTextFile mappedFile; //when set, saves go into a memory mapped file instead of a new FileWriter
+    private Runnable onCardAdded; //wakes the player drawing from this deck
+    private Runnable onCardDrawn; //wakes the player discarding to this deck
+    protected GameMetrics metrics; //null unless metrics are turned on, set before the players start
 
     public Deck(int deckNumber) {
+        this(deckNumber, true);
+    }
+
+    public Deck(int deckNumber, boolean fileOutput) {
+        this(deckNumber, "output", fileOutput);
+    }
+
+    public Deck(int deckNumber, String directory, boolean fileOutput) {
         this.deckNumber = deckNumber;
-        createFile(); // create output file for deck
-        System.out.println("Deck " + deckNumber + " initialized.");
+        this.directory = directory;
+        this.fileOutput = fileOutput; // the file is created by the first save, the game saves every deck after dealing
+        GameLog.trace("Deck " + deckNumber + " initialized.");
     }
     
 
+    @Override
     public int getDeckNumber() {
         return deckNumber; //returns deck number
     }
 
+    @Override
     public synchronized int getDeckSize() {
         return deckCards.size(); //returns deck size
     }
 
+    // maps the deck's output file once, later saves just copy bytes into it
+    public synchronized void useMappedOutput() {
+        if (!fileOutput || mappedFile != null) {
+            return;
+        }
+        try {
+            mappedFile = new MappedTextFile(Path.of(getFilename()), 4096);
+        } catch (IOException e) {
+            GameLog.error("Error mapping file for Deck " + deckNumber + ", using normal writes", e);
+        }
+    }
+
+    // leaves a mapped output file at its final size, later saves use normal writes again
+    public synchronized void closeOutput() {
+        if (mappedFile == null) {
+            return;
+        }
+        try {
+            mappedFile.close();
+        } catch (IOException e) {
+            GameLog.error("Error closing file for Deck " + deckNumber, e);
+        }
+        mappedFile = null;
+    }
+
+    public void setPersister(DeckPersister persister) {
+        this.persister = persister; // hand file saves over to a background persister
+    }
+
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // set before the players start, so plain fields are safe to read from the player threads
+    public void setOnCardAdded(Runnable onCardAdded) {
+        this.onCardAdded = onCardAdded;
+    }
+
+    @Override
+    public void setOnCardDrawn(Runnable onCardDrawn) {
+        this.onCardDrawn = onCardDrawn;
+    }
+
+    protected void notifyCardAdded() {
+        if (onCardAdded != null) {
+            onCardAdded.run();
+        }
+    }
+
+    protected void notifyCardDrawn() {
+        if (onCardDrawn != null) {
+            onCardDrawn.run();
+        }
+    }
+
     public String getFilename() {
-        return "output/deck" + deckNumber + "_output.txt"; // filename for deck's output file
+        return directory + "/deck" + deckNumber + "_output.txt"; // filename for deck's output file
     }    
 
-    public synchronized Card drawTopCard() {
-        if (!deckCards.isEmpty()) { // check if deck has cards
-            Card card = deckCards.remove(0);
-            saveDeckToFile(); // update the file after modifying the deck
-            return card; // return drawn card
-        }
-        return null; // return null if deck is empty 
+    public Card drawTopCard() {
+        int value = drawTopValue();
+        return value == EMPTY ? null : new Card(value); // return drawn card, null if deck is empty
     }
     
-    public synchronized void addBottomCard(Card card) {
-        deckCards.add(card); // add card to bottom 
-        System.out.println("Card " + card.getValue() + " added to Deck " + deckNumber);
-        saveDeckToFile(); // save updated deck to file 
+    public void addBottomCard(Card card) {
+        addBottomValue(card.getValue());
     }    
 
-    public void assignCard(Card card, int position) {
+    // hot path version of drawTopCard(), returns EMPTY if the deck has no cards
+    public int drawTopValue() {
+        long start = metrics != null ? System.nanoTime() : 0;
+        synchronized (this) {
+            lockAcquired(start);
+            return deckCards.isEmpty() ? EMPTY : removeTop(); // EMPTY if the deck has no cards
+        }
+    }
+
+    // hot path version of addBottomCard()
+    @Override
+    public void addBottomValue(int value) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        synchronized (this) {
+            lockAcquired(start);
+            append(value);
+        }
+    }
+
+    // one whole turn as a single step: draws the top card, lets chooseDiscard pick the card to give away and
+    // adds it to the bottom of target; returns the drawn card, or EMPTY without changing anything if this deck
+    // is empty or target already holds targetLimit cards
+    public int drawAndDiscard(DiscardPile target, int targetLimit, IntUnaryOperator chooseDiscard) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        // both monitors, always lowest deck number first, so neighbouring turns can never deadlock
+        Object first = deckNumber <= target.getDeckNumber() ? this : target;
+        Object second = first == this ? target : this;
+        synchronized (first) {
+            synchronized (second) {
+                lockAcquired(start);
+                if (deckCards.isEmpty() || target.getDeckSize() >= targetLimit) {
+                    return EMPTY;
+                }
+                int drawn = removeTop();
+                int discarded = chooseDiscard.applyAsInt(drawn);
+                if (target instanceof Deck) {
+                    ((Deck) target).append(discarded); // monitor already held, skip the lock timing
+                } else {
+                    target.addBottomValue(discarded);
+                }
+                return drawn;
+            }
+        }
+    }
+
+    // callers hold the deck monitor
+    private int removeTop() {
+        int value = deckCards.removeFirst();
+        contentsChanged(); // update the file after modifying the deck
+        notifyCardDrawn(); // the deck has space for the discarding player again
+        return value;
+    }
+
+    // callers hold the deck monitor
+    private void append(int value) {
+        deckCards.addLast(value); // add card to bottom 
+        if (GameLog.isDebugEnabled()) {
+            GameLog.debug("Card " + value + " added to Deck " + deckNumber);
+        }
+        contentsChanged(); // save updated deck to file 
+        notifyCardAdded(); // the drawing player has a card to take
+    }
+
+    // records how long the caller was blocked on the deck monitor(s)
+    private void lockAcquired(long start) {
+        if (metrics != null) {
+            metrics.recordDeckLockWait(System.nanoTime() - start);
+        }
+    }
+
+    // adds count values to the bottom in one step while dealing; the caller saves the deck afterwards
+    public synchronized void addBottomValues(int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            deckCards.addLast(values[i]);
+        }
+        notifyCardAdded();
+    }
+
+    protected void contentsChanged() {
+        if (metrics != null) {
+            metrics.recordDeckDepth(deckNumber, getDeckSize());
+        }
+        if (!fileOutput) {
+            return; // nothing to keep in sync
+        }
+        DeckPersister current = persister;
+        if (current != null) {
+            current.markDirty(this); // persister writes the file later, outside the deck lock
+        } else {
+            saveDeckToFile(); // no persister, rewrite the file straight away
+        }
+    }
+
+    public synchronized void assignCard(Card card, int position) {
         // adds a card to a specified position in deck
         if (position >= 0 && position <= deckCards.size()){
-            deckCards.add(position, card); // adds card to specified position 
+            deckCards.insert(position, card.getValue()); // adds card to specified position 
         } else {
             throw new IndexOutOfBoundsException("Invalid position for card insertion.");
         }
@@ -54,11 +216,11 @@ public class Deck {
 
     public synchronized String getValueString() {
         if (deckCards.isEmpty()) { // check if deck is empty 
-            System.out.println("Deck " + deckNumber + " is empty!"); // log if deck is empty 
+            GameLog.trace("Deck " + deckNumber + " is empty!"); // log if deck is empty 
         }
         StringBuilder value = new StringBuilder();
-        for (Card card : deckCards) { // loop through all cards in deck 
-            value.append(card.getValue()).append(" ");
+        for (int i = 0; i < deckCards.size(); i++) { // loop through all cards in deck 
+            value.append(deckCards.get(i)).append(" ");
         }
         if (value.length() > 0) {
             value.setLength(value.length() - 1); 
@@ -66,19 +228,13 @@ public class Deck {
         return value.toString();
     }    
 
-    private void createFile() { // creates output file for deck 
-        try {
-            File file = new File(getFilename());
-            System.out.println("Attempting to create file at: " + file.getAbsolutePath());
-            if (file.createNewFile()) {
-                System.out.println("File created for Deck " + deckNumber); // log success
-            } else {
-                System.out.println("File already exists for Deck " + deckNumber); // log if file already exists 
-            }
-        } catch (IOException e) {
-            System.err.println("Error creating file for Deck " + deckNumber); // log if file creation fails 
-            e.printStackTrace();
+    // card values from top to bottom, a copy
+    public synchronized int[] getValues() {
+        int[] values = new int[deckCards.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = deckCards.get(i);
         }
+        return values;
     }
 
     public void writeFile() {
@@ -87,30 +243,59 @@ public class Deck {
             //overwrites any existing contents in the file
             writer.write("deck" + deckNumber + " contents: " + getValueString());
         } catch (IOException e) {
-            System.err.println("Error writing to file for deck " + deckNumber);
-            e.printStackTrace();
+            GameLog.error("Error writing to file for deck " + deckNumber, e);
         }
     }
 
     public synchronized void saveDeckToFile() { // saves deck's current contents to its output file 
-        try (FileWriter writer = new FileWriter(getFilename())) {
-            String content = "deck" + deckNumber + " contents: " + getValueString();
-            writer.write(content); // write content to file 
-            System.out.println("Deck " + deckNumber + " saved to file."); // log success
+        writeContents(getValueString());
+    }    
+
+    // false if the deck has no mapped file, the contents are plain ASCII so the bytes match a FileWriter's
+    private boolean writeMapped(String content) {
+        MappedTextFile file = mappedFile; // not under the deck lock, the file has its own
+        if (file == null) {
+            return false;
+        }
+        try {
+            byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+            file.rewrite(bytes, bytes.length);
+            GameLog.debug("Deck " + deckNumber + " saved to file.");
         } catch (IOException e) {
-            System.err.println("Error saving contents to file for Deck " + deckNumber); // log error if saving fails 
-            e.printStackTrace();
+            GameLog.error("Error saving contents to file for Deck " + deckNumber, e);
         }
-    }    
+        return true;
+    }
+
+    public void writeContents(String values) { // writes a snapshot of the deck values to its output file 
+        if (!fileOutput) {
+            return;
+        }
+        long start = metrics != null ? System.nanoTime() : 0;
+        String content = "deck" + deckNumber + " contents: " + values;
+        if (!writeMapped(content)) {
+            try (FileWriter writer = new FileWriter(getFilename())) {
+                writer.write(content); // write content to file 
+                GameLog.debug("Deck " + deckNumber + " saved to file."); // log success
+            } catch (IOException e) {
+                GameLog.error("Error saving contents to file for Deck " + deckNumber, e); // log error if saving fails 
+            }
+        }
+        if (metrics != null) {
+            metrics.recordDeckSave(System.nanoTime() - start);
+        }
+    }
 
 }
 
 /*
 Attributes:
 value: integer that will represent player (= deck) number (1, 2, 3…)
-cards: a Queue<Card> that stores cards in deck
+cards: an IntDeque that stores the card values in deck
 
 Methods:
 addCard(Card card): adds card to deck, places it at end of the queue 
 drawCard(): removes and returns top card of the deck. 
+drawAndDiscard(DiscardPile target, int targetLimit, IntUnaryOperator chooseDiscard): a player's whole turn, atomic across both decks
+getValues(): copy of the card values, top first
 */
\ No newline at end of file
@@ -0,0 +1,91 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class DeckArena {
+    public static final int DEFAULT_CAPACITY = 8; // a deck never holds more than 5 cards during play
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int HEAD = 0; // offsets inside a deck's region
+    private static final int TAIL = 8;
+    private static final int SLOTS = 16;
+
+    private final ByteBuffer buffer; //off the Java heap, one region per deck: head, tail, then the card slots
+    private final int decks;
+    private final int capacity; //slots per deck, a power of two
+    private final int regionBytes;
+    private int allocated = 0; //regions handed out so far, guarded by this
+
+    public DeckArena(int decks) {
+        this(decks, DEFAULT_CAPACITY);
+    }
+
+    public DeckArena(int decks, int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Deck capacity must be a power of two.");
+        }
+        this.decks = decks;
+        this.capacity = capacity;
+        this.regionBytes = SLOTS + 4 * Math.max(capacity, 2); // keeps every region 8 byte aligned for the counters
+        this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(decks, regionBytes)).order(ByteOrder.nativeOrder());
+    }
+
+    // hands out the next unused region, returns its offset
+    public synchronized int allocate() {
+        if (allocated == decks) {
+            throw new IllegalStateException("All " + decks + " deck regions are in use.");
+        }
+        return regionBytes * allocated++;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // bytes held outside the heap
+    public long getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    // head and tail are read with acquire and written with release semantics, as RingBufferDeck requires
+    long head(int region) {
+        return (long) LONGS.getAcquire(buffer, region + HEAD);
+    }
+
+    void setHead(int region, long head) {
+        LONGS.setRelease(buffer, region + HEAD, head);
+    }
+
+    long tail(int region) {
+        return (long) LONGS.getAcquire(buffer, region + TAIL);
+    }
+
+    void setTail(int region, long tail) {
+        LONGS.setRelease(buffer, region + TAIL, tail);
+    }
+
+    // slots are plain reads and writes, published by the tail or head update that follows them
+    int slot(int region, long position) {
+        return (int) INTS.get(buffer, region + SLOTS + 4 * ((int) position & (capacity - 1)));
+    }
+
+    void setSlot(int region, long position, int value) {
+        INTS.set(buffer, region + SLOTS + 4 * ((int) position & (capacity - 1)), value);
+    }
+}
+
+/*
+Off-heap storage shared by all the decks of one game
+A single direct ByteBuffer split into fixed regions, one per OffHeapDeck, each holding the deck's head and
+tail counters and a ring of card values. Card storage therefore adds nothing to the Java heap, however many
+decks or games there are, and the garbage collector never has to scan it.
+
+Attributes:
+buffer: the direct buffer holding every deck
+capacity: card slots per deck
+Methods:
+allocate(): reserves the region of one deck
+head / tail / slot (and setters): accessors used by OffHeapDeck
+*/
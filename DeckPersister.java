@@ -0,0 +1,93 @@
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DeckPersister {
+    private final List<Deck> decks; //consecutively numbered decks, e.g. every deck in the game
+    private final int firstDeckNumber; //number of decks.get(0), 1 unless only part of the ring is local
+    private final AtomicBoolean[] pending; //true while a deck is queued for saving
+    private final ConcurrentLinkedQueue<Deck> dirtyDecks = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler; //null when saving only at game end
+    private boolean closed = false;
+
+    public DeckPersister(List<Deck> decks, long intervalMillis) {
+        this.decks = decks;
+        this.firstDeckNumber = decks.isEmpty() ? 1 : decks.get(0).getDeckNumber();
+        this.pending = new AtomicBoolean[decks.size()];
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = new AtomicBoolean(false);
+        }
+        if (intervalMillis > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "deck-persister");
+                thread.setDaemon(true); // never keeps the JVM alive on its own
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flushDirty, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    // called on every card move, queues the deck once until it is next saved
+    public void markDirty(Deck deck) {
+        if (pending[deck.getDeckNumber() - firstDeckNumber].compareAndSet(false, true)) {
+            dirtyDecks.add(deck);
+        }
+    }
+
+    // saves every deck changed since the last flush
+    public void flushDirty() {
+        Deck deck;
+        while ((deck = dirtyDecks.poll()) != null) {
+            pending[deck.getDeckNumber() - firstDeckNumber].set(false); // changes from now on queue the deck again
+            deck.writeContents(deck.getValueString()); // snapshot, then write outside the deck lock
+        }
+    }
+
+    // writes every deck now, e.g. once after dealing
+    public void saveAll() {
+        for (int i = 0; i < pending.length; i++) {
+            decks.get(i).writeContents(decks.get(i).getValueString());
+        }
+    }
+
+    // stops the background saves and writes the final contents of every deck
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdown();
+                try {
+                    scheduler.awaitTermination(5, TimeUnit.SECONDS); // let a running flush finish
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        dirtyDecks.clear();
+        for (AtomicBoolean flag : pending) {
+            flag.set(false);
+        }
+        saveAll();
+    }
+}
+
+/*
+Saves deck contents to their output files off the players' hot path
+Card moves only mark a deck as dirty, a background thread rewrites each dirty deck's file
+at most once per interval, and close() writes every deck at game end so the final files match the spec
+
+Attributes:
+pending: one flag per deck so a deck is queued at most once between flushes
+dirtyDecks: queue of decks waiting to be saved
+scheduler: single daemon thread running flushDirty() every interval (none if interval <= 0)
+Methods:
+markDirty(Deck deck): queue a deck for saving
+flushDirty(): save all queued decks
+saveAll(): save every deck straight away
+close(): stop the background thread and save every deck
+*/
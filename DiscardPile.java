@@ -0,0 +1,26 @@
+// the end of a deck a player discards into: all a player needs from its right deck, and all a deck
+// owned by another JVM can offer. Deck.drawAndDiscard holds the pile's monitor while it checks the size
+// and adds the card, so implementations guard both with their own monitor
+public interface DiscardPile {
+    int getDeckNumber();
+
+    // may count cards that are still on their way, but never fewer than the deck holds
+    int getDeckSize();
+
+    void addBottomValue(int value);
+
+    // wakes the player discarding here when a card is drawn and there is space again
+    void setOnCardDrawn(Runnable onCardDrawn);
+}
+
+/*
+Right-hand side of a player's turn
+Deck implements it for decks in this JVM and RemoteDeck for the first deck of the next GameNode, which
+can only be added to and sized from here; drawing and dealing happen where the real deck lives.
+
+Methods:
+getDeckNumber(): number shown in the turn logs
+getDeckSize(): current size, compared against Player.MAX_DECK_SIZE before discarding
+addBottomValue(int value): adds the discarded card
+setOnCardDrawn(Runnable onCardDrawn): callback set once before the players start
+*/
@@ -0,0 +1,61 @@
+public interface DiscardStrategy {
+    // a strategy may hold a non-preferred card this many turns at most, then the player gives the oldest one away
+    int MAX_HOLD_TURNS = 16;
+
+    // picks the hand position of the card to give away; the hand holds 5 cards, the drawn card last.
+    // Must pick a non-preferred card whenever the hand has one. Runs inside the deck transaction, so keep it cheap
+    int chooseDiscard(Hand hand);
+
+    // the original rule: the oldest non-preferred card
+    static DiscardStrategy first() {
+        return Hand::discardIndex;
+    }
+
+    // passes on a card the right neighbour prefers first, so it reaches the player who wants it a turn sooner
+    static DiscardStrategy neighbour(int playerId, int numPlayers) {
+        int wanted = playerId % numPlayers + 1; // the right neighbour's preferred value
+        if (wanted == playerId) {
+            return first(); // a single player is its own neighbour
+        }
+        return hand -> {
+            for (int i = 0; i < hand.size(); i++) {
+                if (hand.get(i) == wanted) {
+                    return i;
+                }
+            }
+            return hand.discardIndex();
+        };
+    }
+
+    // passes on the card whose owner sits fewest seats downstream, cards nobody prefers go last
+    static DiscardStrategy nearestOwner(int playerId, int numPlayers) {
+        return hand -> {
+            int best = hand.discardIndex();
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < hand.size(); i++) {
+                if (!hand.isOther(i)) {
+                    continue;
+                }
+                int value = hand.get(i);
+                int distance = value >= 1 && value <= numPlayers ? Math.floorMod(value - playerId, numPlayers) : numPlayers;
+                if (distance < bestDistance) { // strictly less, so the oldest card wins a tie
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        };
+    }
+}
+
+/*
+Decides which card a player gives away on each turn
+Chosen per game with -Dcardgame.discard (see GameConfig); every player gets its own instance, so a
+strategy may keep per-player state. Player falls back to the oldest non-preferred card once it has been
+held for MAX_HOLD_TURNS, so no strategy can keep a card forever.
+
+Strategies:
+first(): oldest non-preferred card, the original behaviour
+neighbour(...): a card the right neighbour prefers, otherwise the oldest non-preferred card
+nearestOwner(...): the card whose owner is closest downstream, ties to the oldest
+*/
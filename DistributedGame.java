@@ -0,0 +1,251 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DistributedGame {
+    // control messages between the coordinator and the nodes, each an int followed by int or long fields
+    static final int HELLO = 1; // node -> coordinator: node index, port of its incoming deck link
+    static final int PEER = 2; // coordinator -> node: port of the next node's incoming deck link
+    static final int READY = 3; // node -> coordinator: links connected, cards dealt
+    static final int START = 4; // coordinator -> node: start the players
+    static final int CLAIM = 5; // node -> coordinator: player id with a winning hand
+    static final int GRANT = 6; // coordinator -> node: the claim won
+    static final int DENY = 7; // coordinator -> node: someone else won first
+    static final int END = 8; // coordinator -> node: winner id, stop playing
+    static final int RESULT = 9; // node -> coordinator: node index, turns, cards sent, cards received
+
+    private final int numPlayers;
+    private final int nodeCount;
+    private final String packFile;
+    private final long seed;
+    private final DataInputStream[] inputs;
+    private final DataOutputStream[] outputs; //each guarded by itself, written by several reader threads
+    private final long[][] results; //per node: turns, cards sent, cards received
+    private final CountDownLatch resultsReceived;
+    private int winnerId = 0; //guarded by this
+    private long startNanos;
+    private long endNanos;
+
+    public DistributedGame(int numPlayers, int nodeCount, String packFile, long seed) {
+        if (nodeCount < 2 || nodeCount > numPlayers) {
+            throw new IllegalArgumentException("Need between 2 and " + numPlayers + " nodes.");
+        }
+        this.numPlayers = numPlayers;
+        this.nodeCount = nodeCount;
+        this.packFile = packFile;
+        this.seed = seed;
+        this.inputs = new DataInputStream[nodeCount];
+        this.outputs = new DataOutputStream[nodeCount];
+        this.results = new long[nodeCount][];
+        this.resultsReceived = new CountDownLatch(nodeCount);
+    }
+
+    // starts one JVM per node, wires them into a ring and plays the game; returns the winner's id
+    public int run() throws IOException, InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        try (ServerSocket control = new ServerSocket(0, nodeCount, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < nodeCount; i++) {
+                processes.add(startNode(control.getLocalPort(), i));
+            }
+
+            // handshake: learn where every node listens, then tell each node where its next node listens
+            int[] dataPorts = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                Socket socket = control.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                expect(in, HELLO);
+                int index = in.readInt();
+                dataPorts[index] = in.readInt();
+                inputs[index] = in;
+                outputs[index] = new DataOutputStream(socket.getOutputStream());
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                send(i, PEER, dataPorts[(i + 1) % nodeCount]);
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                expect(inputs[i], READY);
+            }
+
+            startNanos = System.nanoTime();
+            for (int i = 0; i < nodeCount; i++) {
+                send(i, START);
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                int node = i;
+                Thread reader = new Thread(() -> readNode(node), "coordinator-node-" + i);
+                reader.setDaemon(true);
+                reader.start();
+            }
+            if (!resultsReceived.await(10, TimeUnit.MINUTES)) {
+                throw new IOException("Nodes did not report within 10 minutes.");
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                if (results[i] == null) {
+                    throw new IOException("Node " + i + " stopped without reporting its result.");
+                }
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+        return winnerId;
+    }
+
+    // the same java binary and class path, with every -Dcardgame.* option passed on
+    private Process startNode(int controlPort, int nodeIndex) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+            if (property.getKey().toString().startsWith("cardgame.")) {
+                command.add("-D" + property.getKey() + "=" + property.getValue());
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("GameNode");
+        command.add(Integer.toString(controlPort));
+        command.add(Integer.toString(nodeIndex));
+        command.add(Integer.toString(nodeCount));
+        command.add(Integer.toString(numPlayers));
+        command.add(packFile);
+        command.add(Long.toString(seed));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private void readNode(int node) {
+        DataInputStream in = inputs[node];
+        try {
+            while (true) {
+                int type = in.readInt();
+                if (type == CLAIM) {
+                    claim(node, in.readInt());
+                } else if (type == RESULT) {
+                    int index = in.readInt();
+                    results[index] = new long[]{in.readLong(), in.readLong(), in.readLong()};
+                    resultsReceived.countDown();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            GameLog.error("Lost the connection to node " + node + ".", e);
+            resultsReceived.countDown(); // run() reports the missing result instead of waiting for it
+        }
+    }
+
+    // the first claim wins, every node is then told who won
+    private synchronized void claim(int node, int playerId) throws IOException {
+        if (winnerId != 0) {
+            send(node, DENY);
+            return;
+        }
+        winnerId = playerId;
+        endNanos = System.nanoTime();
+        send(node, GRANT);
+        for (int i = 0; i < nodeCount; i++) {
+            send(i, END, playerId);
+        }
+    }
+
+    private void send(int node, int type, int... values) throws IOException {
+        DataOutputStream out = outputs[node];
+        synchronized (out) {
+            out.writeInt(type);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+            out.flush();
+        }
+    }
+
+    private static void expect(DataInputStream in, int type) throws IOException {
+        int received = in.readInt();
+        if (received != type) {
+            throw new IOException("Expected message " + type + " from a node, got " + received + ".");
+        }
+    }
+
+    // readable report of the game and the traffic between the JVMs
+    public String summary() {
+        long turns = 0;
+        long crossed = 0;
+        StringBuilder nodes = new StringBuilder();
+        for (int i = 0; i < nodeCount; i++) {
+            turns += results[i][0];
+            crossed += results[i][1];
+            nodes.append("  Node ").append(i).append(" (players ").append(GameNode.firstPlayerOf(i, nodeCount, numPlayers))
+                 .append("-").append(GameNode.firstPlayerOf(i + 1, nodeCount, numPlayers) - 1).append("): ")
+                 .append(results[i][0]).append(" turns, ").append(results[i][1]).append(" cards sent, ")
+                 .append(results[i][2]).append(" received\n");
+        }
+        double seconds = (endNanos - startNanos) / 1e9;
+        return numPlayers + " players on " + nodeCount + " JVMs, seed " + seed + ": Player " + winnerId + " wins\n"
+                + turns + " turns in " + (endNanos - startNanos) / 1_000_000 + " ms ("
+                + String.format("%.0f", turns / seconds) + " turns/s), " + crossed + " cards crossed between JVMs ("
+                + String.format("%.0f", crossed / seconds) + " cards/s)\n" + nodes;
+    }
+
+    // usage: java DistributedGame <players> <pack file> <nodes>, -Dcardgame.* options apply to every node
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3) {
+            System.err.println("Usage: java DistributedGame <players> <pack file> <nodes>");
+            System.exit(1);
+        }
+        int numPlayers = Integer.parseInt(args[0]);
+        String packFile = new File(args[1]).getAbsolutePath();
+        int nodeCount = Integer.parseInt(args[2]);
+        try {
+            PackLoader.loadCards(Path.of(packFile), numPlayers); // fail here rather than in every node
+        } catch (InvalidPackException e) {
+            System.err.println("Invalid pack file: " + e.getMessage());
+            System.exit(1);
+        }
+        GameConfig config = GameConfig.fromSystemProperties();
+        if (config.isLockstep()) {
+            System.err.println("Lockstep mode runs on one thread and cannot be distributed.");
+            System.exit(1);
+        }
+        long seed = config.getSeed() != null ? config.getSeed() : new Random().nextLong(); // all nodes must deal alike
+        if (config.isFileOutput()) {
+            new File(config.getDeckDirectory()).mkdirs(); // shared by all nodes, each writes only its own decks
+        }
+
+        DistributedGame game = new DistributedGame(numPlayers, nodeCount, packFile, seed);
+        game.run();
+        System.out.print(game.summary());
+    }
+}
+
+/*
+Coordinator of a game split across several JVMs on one machine
+Starts one GameNode process per range of players, tells each node where the next node's boundary deck
+listens so the decks form the usual ring over loopback sockets, starts all nodes together, grants the
+win to the first claim and collects per-node turn and traffic counts for the report.
+
+Attributes:
+inputs / outputs: control connection to each node
+results: turns and cards sent/received per node
+winnerId: the first claimed winner
+Methods:
+run(): plays the game and returns the winner's id
+summary(): throughput and cross-JVM traffic report
+*/
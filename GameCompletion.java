@@ -0,0 +1,88 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+public class GameCompletion {
+    private static final int ABANDONED = -1; //winnerId of a game stopped before anyone won
+
+    private final AtomicInteger winnerId = new AtomicInteger(0); //0 while the game runs, then the winner or ABANDONED for good
+    private final CountDownLatch finished = new CountDownLatch(1); //released once the game is over
+    private final IntPredicate arbiter; //grants the win when players of one game run in several JVMs, null otherwise
+
+    public GameCompletion() {
+        this(null);
+    }
+
+    public GameCompletion(IntPredicate arbiter) {
+        this.arbiter = arbiter;
+    }
+
+    // claims the win for a player; only the first caller succeeds, so a game has exactly one winner
+    public boolean signalWinner(int playerId) {
+        if (isFinished()) {
+            return false;
+        }
+        if (arbiter != null && !arbiter.test(playerId)) {
+            return false; // a player in another JVM won first, its winner arrives through finishWith()
+        }
+        // the coordinator's broadcast of this very win may already have been recorded by finishWith()
+        if (!winnerId.compareAndSet(0, playerId) && winnerId.get() != playerId) {
+            return false; // another player won first
+        }
+        finished.countDown();
+        return true;
+    }
+
+    // ends the game with a winner decided elsewhere, e.g. by the coordinator of a distributed game
+    public void finishWith(int playerId) {
+        if (winnerId.compareAndSet(0, playerId)) {
+            finished.countDown();
+        }
+    }
+
+    // ends the game without a winner, the players stop as if someone had won; does nothing once the game is over
+    public void abandon() {
+        if (winnerId.compareAndSet(0, ABANDONED)) {
+            finished.countDown();
+        }
+    }
+
+    // blocks the calling thread until a player has won or the game is abandoned
+    public void awaitWinner() throws InterruptedException {
+        finished.await();
+    }
+
+    // waits at most the given time, true if a player has won
+    public boolean awaitWinner(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    // a single volatile read, cheap enough for players to check on every turn
+    public boolean isFinished() {
+        return winnerId.get() != 0;
+    }
+
+    // 0 while the game runs and after abandon()
+    public int getWinnerId() {
+        int id = winnerId.get();
+        return id == ABANDONED ? 0 : id;
+    }
+}
+
+/*
+Completion signal for one game
+Lets the main thread sleep until a player wins instead of spinning, and gives every game its own
+end-of-game flag so several games can run in one JVM
+
+Attributes:
+winnerId: id of the winning player, set once with compareAndSet
+finished: latch counted down by the winning player
+arbiter: optional global check a claim must pass first, used by GameNode
+Methods:
+signalWinner(int playerId): called by a player holding a winning hand, false if someone else already won
+finishWith(int playerId): records a winner from another JVM
+abandon(): ends the game with no winner
+awaitWinner(): waits for the game to end
+isFinished() / getWinnerId(): read by players and the game
+*/
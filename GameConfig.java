@@ -0,0 +1,332 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameConfig {
+    public static final String DECK_LIST = "list"; // synchronized ArrayList deck (Deck)
+    public static final String DECK_RING = "ring"; // lock-free single-producer/single-consumer deck (RingDeck)
+    public static final String DECK_OFFHEAP = "offheap"; // like ring, with every deck's cards in one off-heap buffer (OffHeapDeck)
+    public static final String RUN_THREAD = "thread"; // one platform thread per player
+    public static final String RUN_VIRTUAL = "virtual"; // one virtual thread per player (Java 21+)
+    public static final String RUN_POOL = "pool"; // players share a fixed pool, running in slices
+    public static final String OUTPUT_STREAM = "stream"; // deck files and player logs written with ordinary streams
+    public static final String OUTPUT_MMAP = "mmap"; // deck files and player logs written through memory mappings
+    public static final String DISCARD_FIRST = "first"; // give away the oldest non-preferred card
+    public static final String DISCARD_NEIGHBOUR = "neighbour"; // give away the right neighbour's preferred card first
+    public static final String DISCARD_NEAREST = "nearest"; // give away the card whose owner is closest downstream
+    public static final String RUN_LOCKSTEP = "lockstep"; // players take turns in id order on the game's own thread
+
+    // Executors.newVirtualThreadPerTaskExecutor, looked up reflectively so the game still compiles and runs on Java 17;
+    // null when the running JVM has no virtual threads
+    private static final Method VIRTUAL_EXECUTOR = virtualExecutorFactory();
+
+    private String deckType = DECK_LIST;
+    private long persistIntervalMillis = 50; //-1 saves on every move, 0 only at game end
+    private boolean parkWhenIdle = true; //players sleep until a neighbour moves instead of polling
+    private String executionMode = RUN_THREAD;
+    private int poolSize = Runtime.getRuntime().availableProcessors(); //threads used by the "pool" mode
+    private boolean fileOutput = true; //false stubs out deck files and player logs, e.g. for benchmarks
+    private String outputMode = OUTPUT_STREAM;
+    private String deckDirectory = "output"; //where deckN_output.txt files go
+    private String logDirectory = "."; //where player_N_log.txt files go
+    private Long seed = null; //shuffle seed, null for a different shuffle every game
+    private String recordFile = null; //where the binary move recording is saved, null for no recording
+    private boolean metrics = false; //collect GameMetrics, publish them over JMX and print a summary at game end
+    private String discardStrategy = DISCARD_FIRST; //how every player of the game picks the card to give away
+    private long monitorIntervalMillis = 0; //logs a GameSnapshot at this interval while the game runs, 0 for never
+
+    // builds a config from -Dcardgame.* system properties, falling back to defaults
+    public static GameConfig fromSystemProperties() {
+        GameConfig config = new GameConfig();
+        config.setDeckType(System.getProperty("cardgame.deck", DECK_LIST));
+        config.setPersistIntervalMillis(Long.getLong("cardgame.persistIntervalMs", 50));
+        config.setParkWhenIdle(!"spin".equals(System.getProperty("cardgame.scheduling", "park")));
+        config.setExecutionMode(System.getProperty("cardgame.executor", RUN_THREAD));
+        config.setPoolSize(Integer.getInteger("cardgame.poolSize", config.getPoolSize()));
+        config.setFileOutput(!"false".equals(System.getProperty("cardgame.fileOutput", "true")));
+        config.setOutputMode(System.getProperty("cardgame.output", OUTPUT_STREAM));
+        config.setSeed(Long.getLong("cardgame.seed"));
+        config.setRecordFile(System.getProperty("cardgame.record"));
+        config.setMetrics(Boolean.getBoolean("cardgame.metrics"));
+        config.setDiscardStrategy(System.getProperty("cardgame.discard", DISCARD_FIRST));
+        config.setMonitorIntervalMillis(Long.getLong("cardgame.monitorMs", 0));
+        return config;
+    }
+
+    public String getDeckType() {
+        return deckType;
+    }
+
+    public GameConfig setDeckType(String deckType) {
+        if (!DECK_LIST.equals(deckType) && !DECK_RING.equals(deckType) && !DECK_OFFHEAP.equals(deckType)) {
+            throw new IllegalArgumentException("Unknown deck type: " + deckType);
+        }
+        this.deckType = deckType;
+        return this;
+    }
+
+    public long getPersistIntervalMillis() {
+        return persistIntervalMillis;
+    }
+
+    public GameConfig setPersistIntervalMillis(long persistIntervalMillis) {
+        this.persistIntervalMillis = persistIntervalMillis;
+        return this;
+    }
+
+    public boolean isParkWhenIdle() {
+        return parkWhenIdle;
+    }
+
+    public GameConfig setParkWhenIdle(boolean parkWhenIdle) {
+        this.parkWhenIdle = parkWhenIdle;
+        return this;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public GameConfig setExecutionMode(String executionMode) {
+        if (!RUN_THREAD.equals(executionMode) && !RUN_VIRTUAL.equals(executionMode) && !RUN_POOL.equals(executionMode)
+                && !RUN_LOCKSTEP.equals(executionMode)) {
+            throw new IllegalArgumentException("Unknown executor: " + executionMode);
+        }
+        if (RUN_VIRTUAL.equals(executionMode) && VIRTUAL_EXECUTOR == null) {
+            throw new IllegalArgumentException("Virtual threads need Java 21 or later, this is Java "
+                    + Runtime.version().feature() + ". Use the \"pool\" or \"thread\" executor instead.");
+        }
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public GameConfig setPoolSize(int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    public boolean isFileOutput() {
+        return fileOutput;
+    }
+
+    public GameConfig setFileOutput(boolean fileOutput) {
+        this.fileOutput = fileOutput;
+        return this;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public GameConfig setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public String getRecordFile() {
+        return recordFile;
+    }
+
+    public GameConfig setRecordFile(String recordFile) {
+        this.recordFile = recordFile;
+        return this;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public GameConfig setMetrics(boolean metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public String getOutputMode() {
+        return outputMode;
+    }
+
+    public GameConfig setOutputMode(String outputMode) {
+        if (!OUTPUT_STREAM.equals(outputMode) && !OUTPUT_MMAP.equals(outputMode)) {
+            throw new IllegalArgumentException("Unknown output mode: " + outputMode);
+        }
+        if (OUTPUT_MMAP.equals(outputMode) && !MappedTextFile.isSupported()) {
+            throw new IllegalArgumentException("Memory mapped output cannot replace a file that is still mapped on this platform, use \"stream\".");
+        }
+        this.outputMode = outputMode;
+        return this;
+    }
+
+    public boolean isMappedOutput() {
+        return OUTPUT_MMAP.equals(outputMode);
+    }
+
+    public String getDeckDirectory() {
+        return deckDirectory;
+    }
+
+    public String getLogDirectory() {
+        return logDirectory;
+    }
+
+    public String getDiscardStrategy() {
+        return discardStrategy;
+    }
+
+    public GameConfig setDiscardStrategy(String discardStrategy) {
+        if (!DISCARD_FIRST.equals(discardStrategy) && !DISCARD_NEIGHBOUR.equals(discardStrategy)
+                && !DISCARD_NEAREST.equals(discardStrategy)) {
+            throw new IllegalArgumentException("Unknown discard strategy: " + discardStrategy);
+        }
+        this.discardStrategy = discardStrategy;
+        return this;
+    }
+
+    public long getMonitorIntervalMillis() {
+        return monitorIntervalMillis;
+    }
+
+    public GameConfig setMonitorIntervalMillis(long monitorIntervalMillis) {
+        if (monitorIntervalMillis < 0) {
+            throw new IllegalArgumentException("Monitor interval must not be negative.");
+        }
+        this.monitorIntervalMillis = monitorIntervalMillis;
+        return this;
+    }
+
+    // puts the deck files in <directory>/output and the player logs in <directory>, the layout of a normal run
+    public GameConfig setOutputDirectory(String directory) {
+        this.deckDirectory = directory + "/output";
+        this.logDirectory = directory;
+        return this;
+    }
+
+    // independent copy, so one base config can be tweaked per game
+    public GameConfig copy() {
+        GameConfig copy = new GameConfig();
+        copy.deckType = deckType;
+        copy.persistIntervalMillis = persistIntervalMillis;
+        copy.parkWhenIdle = parkWhenIdle;
+        copy.executionMode = executionMode;
+        copy.poolSize = poolSize;
+        copy.fileOutput = fileOutput;
+        copy.outputMode = outputMode;
+        copy.deckDirectory = deckDirectory;
+        copy.logDirectory = logDirectory;
+        copy.seed = seed;
+        copy.recordFile = recordFile;
+        copy.metrics = metrics;
+        copy.discardStrategy = discardStrategy;
+        copy.monitorIntervalMillis = monitorIntervalMillis;
+        return copy;
+    }
+
+    // pool threads are shared, so players on them must give the thread back instead of parking
+    public boolean isCooperative() {
+        return RUN_POOL.equals(executionMode);
+    }
+
+    // lockstep games need no executor, the game thread plays every turn itself
+    public boolean isLockstep() {
+        return RUN_LOCKSTEP.equals(executionMode);
+    }
+
+    // creates the executor that runs the players of one game
+    public ExecutorService newPlayerExecutor() {
+        if (RUN_VIRTUAL.equals(executionMode)) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null); // setExecutionMode() checked it exists
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create the virtual thread executor.", e);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory factory = runnable -> new Thread(runnable, "player-" + threadCount.incrementAndGet());
+        if (RUN_POOL.equals(executionMode)) {
+            return Executors.newFixedThreadPool(poolSize, factory);
+        }
+        return Executors.newCachedThreadPool(factory); // a new thread for every player, as each never finishes early
+    }
+
+    private static Method virtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    // a new instance of the configured discard strategy for one player
+    public DiscardStrategy newDiscardStrategy(int playerId, int numPlayers) {
+        if (DISCARD_NEIGHBOUR.equals(discardStrategy)) {
+            return DiscardStrategy.neighbour(playerId, numPlayers);
+        }
+        if (DISCARD_NEAREST.equals(discardStrategy)) {
+            return DiscardStrategy.nearestOwner(playerId, numPlayers);
+        }
+        return DiscardStrategy.first();
+    }
+
+    // the shared storage for the given number of off-heap decks, null for the other deck types
+    public DeckArena newDeckArena(int decks) {
+        return DECK_OFFHEAP.equals(deckType) ? new DeckArena(decks) : null;
+    }
+
+    // creates a deck of the configured type
+    public Deck newDeck(int deckNumber) {
+        return newDeck(deckNumber, null);
+    }
+
+    // creates a deck of the configured type, off-heap decks take their space from arena (their own if null)
+    public Deck newDeck(int deckNumber, DeckArena arena) {
+        Deck deck;
+        if (DECK_OFFHEAP.equals(deckType)) {
+            deck = new OffHeapDeck(deckNumber, arena != null ? arena : new DeckArena(1), deckDirectory, fileOutput);
+        } else if (DECK_RING.equals(deckType)) {
+            deck = new RingDeck(deckNumber, RingDeck.DEFAULT_CAPACITY, deckDirectory, fileOutput);
+        } else {
+            deck = new Deck(deckNumber, deckDirectory, fileOutput);
+        }
+        if (isMappedOutput()) {
+            deck.useMappedOutput();
+        }
+        return deck;
+    }
+}
+
+/*
+Holds the options used to set up a game
+Read from system properties so the interactive main stays unchanged
+
+Attributes:
+deckType: which Deck implementation is used for every deck in the game ("list", "ring" or "offheap")
+persistIntervalMillis: how often changed decks are saved by the DeckPersister (-1 = on every move, 0 = at game end)
+parkWhenIdle: whether players park until woken by a neighbour ("park") or keep polling their decks ("spin")
+executionMode: what runs the players ("thread", "virtual", "pool" or "lockstep"), "virtual" is refused before Java 21
+poolSize: number of threads in the "pool" mode
+fileOutput: whether deck files and player logs are written at all
+outputMode: how they are written, "stream" or "mmap" (preallocated memory mapped files, cut to size at game end)
+deckDirectory / logDirectory: where the deck files and player logs are written
+seed: seed for the pack shuffle, so the same seed deals the same game
+recordFile: file the moves are recorded to for GameReplay
+metrics: whether GameMetrics are collected
+discardStrategy: how players pick the card to give away ("first", "neighbour" or "nearest")
+monitorIntervalMillis: how often a GameMonitor logs a snapshot of the running game (0 = no monitor)
+Methods:
+fromSystemProperties(): reads -Dcardgame.deck, -Dcardgame.persistIntervalMs, -Dcardgame.scheduling,
+                        -Dcardgame.executor, -Dcardgame.poolSize, -Dcardgame.fileOutput, -Dcardgame.output,
+                        -Dcardgame.seed, -Dcardgame.record, -Dcardgame.metrics, -Dcardgame.discard
+                        and -Dcardgame.monitorMs
+newPlayerExecutor(): creates the executor for the players of one game
+newDiscardStrategy(int playerId, int numPlayers): the configured strategy for one player
+newDeckArena(int decks): creates the shared off-heap storage for one game's decks
+newDeck(int deckNumber, DeckArena arena): creates a deck of the configured type
+*/
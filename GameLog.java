@@ -0,0 +1,121 @@
+public final class GameLog {
+    public enum Level { ERROR, WARN, INFO, DEBUG, TRACE }
+
+    private static final int BUFFER_SIZE = 1 << 14; //lines the async appender holds before producers wait
+
+    private static volatile Level level = Level.WARN; //messages above this level are dropped
+    private static volatile AsyncConsoleAppender appender; //created on first use of a verbose level
+
+    static {
+        String configured = System.getProperty("cardgame.log", "warn");
+        try {
+            setLevel(Level.valueOf(configured.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level " + configured + ", using warn.");
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(GameLog::flush, "log-flush")); // queued lines survive System.exit
+    }
+
+    private GameLog() {
+    }
+
+    // changes the level for the whole JVM, DEBUG and TRACE switch console output to the async appender
+    public static synchronized void setLevel(Level newLevel) {
+        if (newLevel.compareTo(Level.INFO) > 0 && appender == null) {
+            appender = new AsyncConsoleAppender(BUFFER_SIZE);
+        }
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    // guards for hot paths, so disabled messages are never built
+    public static boolean isDebugEnabled() {
+        return level.compareTo(Level.DEBUG) >= 0;
+    }
+
+    public static boolean isTraceEnabled() {
+        return level == Level.TRACE;
+    }
+
+    public static void error(String message) {
+        error(message, null);
+    }
+
+    // errors and warnings go straight to System.err, they are rare and should not be lost
+    public static void error(String message, Throwable cause) {
+        System.err.println(message);
+        if (cause != null) {
+            cause.printStackTrace();
+        }
+    }
+
+    public static void warn(String message) {
+        if (level.compareTo(Level.WARN) >= 0) {
+            System.err.println(message);
+        }
+    }
+
+    // output the run was asked for, like the result of a game or a summary turned on with -Dcardgame.metrics;
+    // not diagnostics, so it is shown at the default level and only hidden at ERROR
+    public static void report(String message) {
+        if (level.compareTo(Level.WARN) >= 0) {
+            write(message);
+        }
+    }
+
+    public static void info(String message) {
+        if (level.compareTo(Level.INFO) >= 0) {
+            write(message);
+        }
+    }
+
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            write(message);
+        }
+    }
+
+    public static void trace(String message) {
+        if (isTraceEnabled()) {
+            write(message);
+        }
+    }
+
+    // waits for queued console output, e.g. before the program prints its last line
+    public static void flush() {
+        AsyncConsoleAppender current = appender;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    private static void write(String message) {
+        AsyncConsoleAppender current = appender;
+        if (current != null) {
+            current.append(message); // verbose mode, keep the console lock off the caller's thread
+        } else {
+            System.out.println(message);
+        }
+    }
+}
+
+/*
+Leveled logging used by every game class instead of System.out
+Defaults to WARN, so a game only prints problems and the reports it was asked for (its result, the metrics
+summary, monitor snapshots). INFO adds game level events (dealing, the winner, final saves), per-card moves
+and deck saves are DEBUG and setup chatter is TRACE, set with -Dcardgame.log=info, debug or trace.
+At DEBUG and TRACE, console lines go through an AsyncConsoleAppender so tracing does not turn
+System.out into a lock shared by all player threads.
+
+Attributes:
+level: current level, ERROR < WARN < INFO < DEBUG < TRACE
+appender: async console writer, only created for verbose levels
+Methods:
+error/warn/info/debug/trace(String message): log a line at that level
+report(String message): requested output, shown unless the level is ERROR
+isDebugEnabled() / isTraceEnabled(): check before building hot path messages
+flush(): wait for queued output
+*/
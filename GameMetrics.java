@@ -0,0 +1,253 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class GameMetrics implements GameMetricsMXBean {
+    private static final AtomicInteger gameCount = new AtomicInteger(); //numbers the MBeans of games in one JVM
+    private static final int MAX_TRACKED_DEPTH = 64; //deeper decks share the last depth slot
+
+    private final int numPlayers;
+    private final AtomicLongArray playerTurns; //indexed by player id, slot 0 unused
+    private final AtomicLongArray playerIdleWaits; //times a player found it could not move
+    private final LatencyHistogram turnTime = new LatencyHistogram(); //whole draw and discard
+    private final LatencyHistogram idleTime = new LatencyHistogram(); //time parked waiting for a neighbour
+    private final LatencyHistogram deckLockWait = new LatencyHistogram(); //time to enter a deck monitor
+    private final LatencyHistogram deckSaveTime = new LatencyHistogram(); //one deck file write
+    private final LatencyHistogram turnLogTime = new LatencyHistogram(); //handing a turn to the TurnLogger
+    private final AtomicLongArray depthCounts = new AtomicLongArray(MAX_TRACKED_DEPTH + 1); //samples per deck depth
+    private final AtomicLongArray deckMaxDepth; //indexed by deck number, slot 0 unused
+    private volatile long startNanos = 0;
+    private volatile long endNanos = 0;
+    private ObjectName objectName; //null until registered
+
+    public GameMetrics(int numPlayers) {
+        this.numPlayers = numPlayers;
+        this.playerTurns = new AtomicLongArray(numPlayers + 1);
+        this.playerIdleWaits = new AtomicLongArray(numPlayers + 1);
+        this.deckMaxDepth = new AtomicLongArray(numPlayers + 1);
+    }
+
+    // publishes the metrics over JMX as cardgame:type=GameMetrics,game=N
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("cardgame:type=GameMetrics,game=" + gameCount.incrementAndGet());
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            GameLog.error("Could not register game metrics with JMX.", e);
+            objectName = null;
+        }
+    }
+
+    // removes the MBean so finished games do not pile up in a long running JVM
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            GameLog.warn("Could not unregister game metrics from JMX.");
+        }
+        objectName = null;
+    }
+
+    public void gameStarted() {
+        startNanos = System.nanoTime();
+    }
+
+    public void gameFinished() {
+        if (endNanos == 0) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    public void recordTurn(int playerId, long nanos) {
+        playerTurns.incrementAndGet(playerId);
+        turnTime.record(nanos);
+    }
+
+    public void recordIdle(int playerId) {
+        playerIdleWaits.incrementAndGet(playerId);
+    }
+
+    public void recordIdleTime(long nanos) {
+        idleTime.record(nanos);
+    }
+
+    public void recordDeckLockWait(long nanos) {
+        deckLockWait.record(nanos);
+    }
+
+    public void recordDeckSave(long nanos) {
+        deckSaveTime.record(nanos);
+    }
+
+    public void recordTurnLog(long nanos) {
+        turnLogTime.record(nanos);
+    }
+
+    // sampled after every change to a deck, so the counts show how deep decks were over the game
+    public void recordDeckDepth(int deckNumber, int depth) {
+        depthCounts.incrementAndGet(Math.min(depth, MAX_TRACKED_DEPTH));
+        long max;
+        while (depth > (max = deckMaxDepth.get(deckNumber)) && !deckMaxDepth.compareAndSet(deckNumber, max, depth)) {
+            // retry, another thread raised the maximum
+        }
+    }
+
+    @Override
+    public long getTotalTurns() {
+        return turnTime.getCount();
+    }
+
+    @Override
+    public double getTurnsPerSecond() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return end == startNanos ? 0 : getTotalTurns() / ((end - startNanos) / 1e9);
+    }
+
+    @Override
+    public long[] getTurnsPerPlayer() {
+        return toArray(playerTurns);
+    }
+
+    @Override
+    public long getIdleWaits() {
+        return sum(playerIdleWaits);
+    }
+
+    @Override
+    public long[] getIdleWaitsPerPlayer() {
+        return toArray(playerIdleWaits);
+    }
+
+    @Override
+    public long getDeckLockWaitNanos() {
+        return deckLockWait.getSum();
+    }
+
+    @Override
+    public long getDeckLockWaitP99Nanos() {
+        return deckLockWait.getPercentile(99);
+    }
+
+    @Override
+    public long getDeckSaves() {
+        return deckSaveTime.getCount();
+    }
+
+    @Override
+    public long getDeckSaveNanos() {
+        return deckSaveTime.getSum();
+    }
+
+    @Override
+    public long getTurnLogNanos() {
+        return turnLogTime.getSum();
+    }
+
+    @Override
+    public long getMaxDeckDepth() {
+        long max = 0;
+        for (int i = 1; i <= numPlayers; i++) {
+            max = Math.max(max, deckMaxDepth.get(i));
+        }
+        return max;
+    }
+
+    @Override
+    public double getMeanDeckDepth() {
+        long samples = 0;
+        long total = 0;
+        for (int depth = 0; depth <= MAX_TRACKED_DEPTH; depth++) {
+            samples += depthCounts.get(depth);
+            total += depth * depthCounts.get(depth);
+        }
+        return samples == 0 ? 0 : (double) total / samples;
+    }
+
+    public LatencyHistogram getTurnTime() {
+        return turnTime;
+    }
+
+    public LatencyHistogram getDeckLockWait() {
+        return deckLockWait;
+    }
+
+    public LatencyHistogram getDeckSaveTime() {
+        return deckSaveTime;
+    }
+
+    public LatencyHistogram getTurnLogTime() {
+        return turnLogTime;
+    }
+
+    // readable report, printed at game end
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        long elapsedMillis = startNanos == 0 ? 0 : (end - startNanos) / 1_000_000;
+        summary.append("Game metrics: ").append(getTotalTurns()).append(" turns in ").append(elapsedMillis)
+               .append(" ms (").append(String.format("%.0f", getTurnsPerSecond())).append(" turns/s)\n");
+        summary.append("  turn time:       ").append(turnTime.summary(1000, "us")).append("\n");
+        summary.append("  idle waits:      ").append(getIdleWaits()).append(", parked ")
+               .append(idleTime.summary(1000, "us")).append("\n");
+        summary.append("  deck lock wait:  ").append(deckLockWait.summary(1000, "us"))
+               .append(", total ").append(deckLockWait.getSum() / 1_000_000).append(" ms\n");
+        summary.append("  deck file saves: ").append(deckSaveTime.summary(1000, "us"))
+               .append(", total ").append(deckSaveTime.getSum() / 1_000_000).append(" ms\n");
+        summary.append("  turn logging:    ").append(turnLogTime.summary(1000, "us"))
+               .append(", total ").append(turnLogTime.getSum() / 1_000_000).append(" ms\n");
+        summary.append("  deck depth:      mean ").append(String.format("%.2f", getMeanDeckDepth()))
+               .append(", max ").append(getMaxDeckDepth()).append("\n");
+        summary.append("  turns per player:");
+        for (int id = 1; id <= numPlayers && id <= 32; id++) {
+            summary.append(" ").append(playerTurns.get(id));
+        }
+        if (numPlayers > 32) {
+            summary.append(" ...");
+        }
+        summary.append("\n");
+        return summary.toString();
+    }
+
+    private long[] toArray(AtomicLongArray values) {
+        long[] copy = new long[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            copy[i] = values.get(i + 1);
+        }
+        return copy;
+    }
+
+    private long sum(AtomicLongArray values) {
+        long total = 0;
+        for (int i = 1; i <= numPlayers; i++) {
+            total += values.get(i);
+        }
+        return total;
+    }
+}
+
+/*
+Runtime instrumentation for one game, turned on with -Dcardgame.metrics=true
+Players and decks report into lock-free counters and LatencyHistograms, the numbers are readable live
+over JMX (cardgame:type=GameMetrics) and printed as a summary when the game ends.
+When metrics are off nothing is allocated and the hot path only pays a null check.
+
+Attributes:
+playerTurns / playerIdleWaits: per-player turn and idle counts
+turnTime, idleTime, deckLockWait, deckSaveTime, turnLogTime: latency histograms in nanoseconds
+depthCounts / deckMaxDepth: how deep the decks were, sampled on every change
+Methods:
+register() / unregister(): publish or remove the MBean
+record...(...): called from Player and Deck
+getSummary(): report of where the game spent its time
+*/
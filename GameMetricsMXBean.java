@@ -0,0 +1,28 @@
+// management interface of GameMetrics, shown in JConsole/VisualVM under "cardgame"
+public interface GameMetricsMXBean {
+    long getTotalTurns();
+
+    double getTurnsPerSecond();
+
+    long[] getTurnsPerPlayer();
+
+    long getIdleWaits();
+
+    long[] getIdleWaitsPerPlayer();
+
+    long getDeckLockWaitNanos();
+
+    long getDeckLockWaitP99Nanos();
+
+    long getDeckSaves();
+
+    long getDeckSaveNanos();
+
+    long getTurnLogNanos();
+
+    long getMaxDeckDepth();
+
+    double getMeanDeckDepth();
+
+    String getSummary();
+}
@@ -0,0 +1,60 @@
+public class GameMonitor {
+    private final CardGame game;
+    private final long intervalMillis;
+    private final Thread pollerThread;
+    private volatile boolean stopped = false;
+    private long polls = 0; //only touched by the poller thread
+    private long inconsistentPolls = 0;
+
+    public GameMonitor(CardGame game, long intervalMillis) {
+        this.game = game;
+        this.intervalMillis = intervalMillis;
+        this.pollerThread = new Thread(this::poll, "game-monitor");
+        pollerThread.setDaemon(true);
+    }
+
+    public void start() {
+        pollerThread.start();
+    }
+
+    // stops polling and waits for the last poll to finish
+    public void stop() {
+        stopped = true;
+        pollerThread.interrupt();
+        try {
+            pollerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        GameLog.report("Monitor took " + polls + " snapshots, " + inconsistentPolls + " of them not consistent.");
+    }
+
+    // what a dashboard would do: one full snapshot, then incremental ones at a fixed rate
+    private void poll() {
+        GameSnapshot snapshot = null;
+        while (!stopped) {
+            snapshot = game.snapshot(snapshot);
+            polls++;
+            if (!snapshot.isConsistent()) {
+                inconsistentPolls++;
+            }
+            GameLog.report(snapshot.summary());
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
+
+/*
+Polls a running game's state at a fixed interval and logs one line per snapshot
+Turned on with -Dcardgame.monitorMs=<interval>; shows how a dashboard would use CardGame.snapshot()
+
+Attributes:
+intervalMillis: time between snapshots
+polls / inconsistentPolls: how many snapshots were taken and how many could not be validated
+Methods:
+start() / stop(): run the poller thread while the players play
+*/
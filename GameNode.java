@@ -0,0 +1,249 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import player.card.Card;
+
+public class GameNode {
+    private final int nodeIndex;
+    private final int numPlayers; //players in the whole game
+    private final int firstPlayer; //this node runs players firstPlayer..lastPlayer and owns the same decks
+    private final int lastPlayer;
+    private final GameConfig config;
+    private final DataInputStream controlIn; //from the coordinator
+    private final DataOutputStream controlOut; //to the coordinator, guarded by itself
+    private final GameCompletion completion = new GameCompletion(this::claimWin);
+    private final CountDownLatch started = new CountDownLatch(1); //released by the coordinator's START
+    private final List<Deck> decks = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+    private final TurnLogger turnLogger;
+    private DeckPersister persister;
+    private RemoteDeck outgoingDeck; //right deck of the last player, owned by the next node
+    private RemoteDeckReceiver incomingDeck; //fills the first deck from the previous node
+    private volatile CompletableFuture<Boolean> pendingClaim; //answer to the claim in progress, set under this
+
+    public GameNode(int nodeIndex, int nodeCount, int numPlayers, GameConfig config, Socket control) throws IOException {
+        this.nodeIndex = nodeIndex;
+        this.numPlayers = numPlayers;
+        this.firstPlayer = firstPlayerOf(nodeIndex, nodeCount, numPlayers);
+        this.lastPlayer = firstPlayerOf(nodeIndex + 1, nodeCount, numPlayers) - 1;
+        this.config = config;
+        this.controlIn = new DataInputStream(control.getInputStream());
+        this.controlOut = new DataOutputStream(control.getOutputStream());
+        this.turnLogger = new TurnLogger(config.isFileOutput(), config.getLogDirectory(), config.isMappedOutput());
+    }
+
+    // contiguous ranges of players, as even as possible
+    public static int firstPlayerOf(int nodeIndex, int nodeCount, int numPlayers) {
+        return (int) ((long) nodeIndex * numPlayers / nodeCount) + 1;
+    }
+
+    // connects the boundary decks, deals this node's part of the pack and plays until the coordinator ends the game
+    public void run(int[] pack) throws IOException, InterruptedException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        send(DistributedGame.HELLO, nodeIndex, server.socket().getLocalPort());
+        expect(DistributedGame.PEER);
+        int nextNodePort = controlIn.readInt();
+        SocketChannel toNext = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), nextNodePort));
+        SocketChannel fromPrevious = server.accept(); // the previous node connects to us the same way
+        server.close();
+        toNext.setOption(StandardSocketOptions.TCP_NODELAY, true); // batching is done by RemoteDeck
+        fromPrevious.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+        setUp(pack, toNext, fromPrevious);
+        send(DistributedGame.READY);
+        Thread controlReader = new Thread(this::readControl, "node-control");
+        controlReader.setDaemon(true);
+        controlReader.start();
+        started.await();
+
+        ExecutorService executor = config.newPlayerExecutor();
+        boolean cooperative = config.isCooperative();
+        players.forEach(player -> player.startOn(executor, cooperative));
+        completion.awaitWinner();
+        executor.shutdownNow();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            GameLog.warn("Players on node " + nodeIndex + " did not stop within 30 seconds.");
+        }
+        finish();
+    }
+
+    private void setUp(int[] pack, SocketChannel toNext, SocketChannel fromPrevious) {
+        int perDeck = (pack.length - 4 * numPlayers) / numPlayers;
+        if (config.isFileOutput()) {
+            turnLogger.openLogs(firstPlayer, lastPlayer); // the coordinator has created the folders
+        }
+        DeckArena arena = config.newDeckArena(lastPlayer - firstPlayer + 1);
+        for (int d = firstPlayer; d <= lastPlayer; d++) {
+            decks.add(config.newDeck(d, arena));
+        }
+        outgoingDeck = new RemoteDeck(lastPlayer % numPlayers + 1, perDeck, toNext);
+        if (config.isFileOutput() && config.getPersistIntervalMillis() >= 0) {
+            persister = new DeckPersister(decks, config.getPersistIntervalMillis());
+            decks.forEach(deck -> deck.setPersister(persister));
+        }
+        for (int p = firstPlayer; p <= lastPlayer; p++) {
+            Deck left = decks.get(p - firstPlayer);
+            DiscardPile right = p == lastPlayer ? outgoingDeck : decks.get(p - firstPlayer + 1);
+            Player player = new Player(p, left, right, turnLogger, completion, config.isParkWhenIdle());
+            player.setDiscardStrategy(config.newDiscardStrategy(p, numPlayers));
+            player.addValuesToHand(pack, 4 * (p - 1), 4); // the same deal as CardGame.distributeInitialCards
+            players.add(player);
+        }
+        int[] deckCards = new int[perDeck];
+        for (Deck deck : decks) {
+            int d = deck.getDeckNumber() - 1;
+            for (int k = 0; k < perDeck; k++) {
+                deckCards[k] = pack[4 * numPlayers + d + k * numPlayers];
+            }
+            deck.addBottomValues(deckCards, perDeck);
+        }
+        incomingDeck = new RemoteDeckReceiver(decks.get(0), fromPrevious);
+        if (persister != null) {
+            persister.saveAll();
+        } else {
+            decks.forEach(Deck::saveDeckToFile);
+        }
+        GameLog.info("Node " + nodeIndex + " runs players " + firstPlayer + " to " + lastPlayer + ".");
+    }
+
+    // every node does the same, so the stream into each first deck always ends and no card is lost
+    private void finish() throws IOException {
+        outgoingDeck.finishSending(); // the next node gets our last discards, then end of stream
+        incomingDeck.awaitEndOfStream(); // and we get the previous node's
+        incomingDeck.close();
+        outgoingDeck.close();
+
+        int winnerId = completion.getWinnerId();
+        players.forEach(player -> player.exitGame(winnerId));
+        turnLogger.close();
+        if (persister != null) {
+            persister.close();
+        } else {
+            decks.forEach(Deck::saveDeckToFile);
+        }
+        decks.forEach(Deck::closeOutput);
+
+        long turns = 0;
+        for (Player player : players) {
+            turns += player.getTurnCount();
+        }
+        synchronized (controlOut) {
+            controlOut.writeInt(DistributedGame.RESULT);
+            controlOut.writeInt(nodeIndex);
+            controlOut.writeLong(turns);
+            controlOut.writeLong(outgoingDeck.getCardsSent());
+            controlOut.writeLong(incomingDeck.getCardsReceived());
+            controlOut.flush();
+        }
+    }
+
+    // asks the coordinator whether this player is the first in the whole game to win; blocks the claiming player only
+    private synchronized boolean claimWin(int playerId) {
+        pendingClaim = new CompletableFuture<>();
+        try {
+            send(DistributedGame.CLAIM, playerId);
+            return pendingClaim.get();
+        } catch (IOException | ExecutionException e) {
+            GameLog.error("Could not claim the win for Player " + playerId, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // the game is being shut down
+            return false;
+        }
+    }
+
+    private void readControl() {
+        try {
+            while (true) {
+                int type = controlIn.readInt();
+                if (type == DistributedGame.START) {
+                    started.countDown();
+                } else if (type == DistributedGame.GRANT || type == DistributedGame.DENY) {
+                    pendingClaim.complete(type == DistributedGame.GRANT);
+                } else if (type == DistributedGame.END) {
+                    int winnerId = controlIn.readInt();
+                    completion.finishWith(winnerId); // stops our players, whoever won
+                    CompletableFuture<Boolean> claim = pendingClaim;
+                    if (claim != null) {
+                        claim.complete(false); // a claim sent after the win will only ever be denied
+                    }
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            GameLog.error("Lost the connection to the coordinator.", e);
+            completion.finishWith(-1); // nobody can win any more, stop the players
+        }
+    }
+
+    private void send(int type, int... values) throws IOException {
+        synchronized (controlOut) {
+            controlOut.writeInt(type);
+            for (int value : values) {
+                controlOut.writeInt(value);
+            }
+            controlOut.flush();
+        }
+    }
+
+    private void expect(int type) throws IOException {
+        int received = controlIn.readInt();
+        if (received != type) {
+            throw new IOException("Expected message " + type + " from the coordinator, got " + received + ".");
+        }
+    }
+
+    // started by DistributedGame: java GameNode <coordinator port> <node index> <nodes> <players> <pack file> <seed>
+    public static void main(String[] args) throws Exception {
+        int coordinatorPort = Integer.parseInt(args[0]);
+        int nodeIndex = Integer.parseInt(args[1]);
+        int nodeCount = Integer.parseInt(args[2]);
+        int numPlayers = Integer.parseInt(args[3]);
+        long seed = Long.parseLong(args[5]);
+
+        // every node shuffles the same pack with the same seed, so all of them see the same deal
+        ArrayList<Card> cards = PackLoader.loadCards(Path.of(args[4]), numPlayers);
+        List<Card> shuffled = new CardDeck(cards, seed).getDeck();
+        int[] pack = new int[shuffled.size()];
+        for (int i = 0; i < pack.length; i++) {
+            pack[i] = shuffled.get(i).getValue();
+        }
+
+        try (Socket control = new Socket(InetAddress.getLoopbackAddress(), coordinatorPort)) {
+            control.setTcpNoDelay(true);
+            new GameNode(nodeIndex, nodeCount, numPlayers, GameConfig.fromSystemProperties(), control).run(pack);
+        }
+        GameLog.flush();
+        System.exit(0); // daemon link threads may still be parked
+    }
+}
+
+/*
+One JVM of a distributed game, started by DistributedGame
+Runs a contiguous range of players and owns their left decks. The last player's right deck is a
+RemoteDeck feeding the next node and the first deck is filled by a RemoteDeckReceiver from the
+previous node, so the ring of decks runs across processes. Wins are granted by the coordinator.
+
+Attributes:
+firstPlayer / lastPlayer: the players (and decks) this node runs
+completion: local completion signal whose claims are checked with the coordinator
+outgoingDeck / incomingDeck: the two boundary decks
+Methods:
+run(int[] pack): handshake, deal, play and report the result
+claimWin(int playerId): asks the coordinator for the win
+*/
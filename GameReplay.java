@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GameReplay {
+    private final byte[] bytes;
+    private int position = 0;
+
+    private final int numPlayers;
+    private final IntDeque[] decks; //deck i is drawn from by player i+1
+    private final Hand[] hands;
+    private long moves = 0;
+    private int winnerId = 0;
+
+    public GameReplay(byte[] recording) {
+        this.bytes = recording;
+        if (readInt() != MoveRecorder.MAGIC) {
+            throw new IllegalArgumentException("Not a game recording.");
+        }
+        numPlayers = readVarInt();
+        int[] pack = new int[readVarInt()];
+        for (int i = 0; i < pack.length; i++) {
+            pack[i] = readVarInt();
+        }
+
+        // deal exactly as CardGame.distributeInitialCards does
+        hands = new Hand[numPlayers];
+        decks = new IntDeque[numPlayers];
+        for (int p = 0; p < numPlayers; p++) {
+            hands[p] = new Hand(p + 1);
+            for (int i = 0; i < 4; i++) {
+                hands[p].add(pack[4 * p + i]);
+            }
+            decks[p] = new IntDeque(8);
+        }
+        for (int k = 4 * numPlayers; k < pack.length; k++) {
+            decks[(k - 4 * numPlayers) % numPlayers].addLast(pack[k]);
+        }
+    }
+
+    public static GameReplay fromFile(Path file) throws IOException {
+        return new GameReplay(Files.readAllBytes(file));
+    }
+
+    // applies every recorded move, checking each one against the rules; returns the winner's id
+    public int replay() {
+        while (true) {
+            int playerId = readVarInt();
+            if (playerId == 0) {
+                winnerId = readVarInt(); // 0 if the game got stuck without a winner
+                if (winnerId < 0 || winnerId > numPlayers || (winnerId > 0 && !hands[winnerId - 1].isWinning())) {
+                    throw new IllegalStateException("Recorded winner " + winnerId + " does not hold a winning hand.");
+                }
+                return winnerId;
+            }
+            int discardIndex = bytes[position++];
+            applyMove(playerId, discardIndex);
+        }
+    }
+
+    private void applyMove(int playerId, int discardIndex) {
+        if (playerId > numPlayers) {
+            throw new IllegalStateException("Move " + (moves + 1) + " names unknown player " + playerId + ".");
+        }
+        IntDeque left = decks[playerId - 1];
+        IntDeque right = decks[playerId % numPlayers];
+        if (left.isEmpty() || right.size() >= 5) { // same test as Player.canMove()
+            throw new IllegalStateException("Move " + (moves + 1) + " by player " + playerId + " was not possible.");
+        }
+        Hand hand = hands[playerId - 1];
+        hand.add(left.removeFirst());
+        right.addLast(hand.removeAt(discardIndex));
+        moves++;
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public long getMoveCount() {
+        return moves;
+    }
+
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    // card values of a player's hand after the moves replayed so far
+    public int[] getHand(int playerId) {
+        Hand hand = hands[playerId - 1];
+        int[] values = new int[hand.size()];
+        System.arraycopy(hand.values(), 0, values, 0, values.length);
+        return values;
+    }
+
+    // card values of a deck after the moves replayed so far, top first
+    public int[] getDeck(int deckNumber) {
+        IntDeque deck = decks[deckNumber - 1];
+        int[] values = new int[deck.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = deck.get(i);
+        }
+        return values;
+    }
+
+    private int readInt() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (bytes[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    // usage: java GameReplay <recording file>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java GameReplay <recording file>");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        GameReplay replay = fromFile(Path.of(args[0]));
+        int winner = replay.replay();
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        System.out.println("Replayed " + replay.getMoveCount() + " moves of a " + replay.getNumPlayers()
+                + "-player game in " + elapsedMicros + " us. Player " + winner + " wins.");
+    }
+}
+
+/*
+Replays a MoveRecorder recording at full speed
+Rebuilds the dealt hands and decks from the recorded pack and applies every move on plain IntDeques
+and Hands, with no threads, Deck objects or file output. Each move is checked against the rules, so a
+recording that does not match the game logic fails with the number of the first bad move.
+
+Methods:
+replay(): applies all moves and returns the winner's id
+getHand(int playerId) / getDeck(int deckNumber): state after replay, for regression checks
+*/
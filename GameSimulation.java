@@ -0,0 +1,145 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import player.card.Card;
+
+public class GameSimulation {
+    private static final int MAX_PARALLELISM = 0x7fff; //most threads a ForkJoinPool accepts
+    private final int numPlayers;
+    private final List<Card> pack; //reshuffled for every game
+    private final GameConfig baseConfig; //copied per game
+    private final String outputRoot; //each game writes to <outputRoot>/game-N when file output is on
+
+    public GameSimulation(int numPlayers, List<Card> pack, GameConfig baseConfig, String outputRoot) {
+        if (pack.size() != 8 * numPlayers) {
+            throw new IllegalArgumentException("Pack must contain exactly " + (8 * numPlayers) + " cards.");
+        }
+        this.numPlayers = numPlayers;
+        this.pack = new ArrayList<>(pack);
+        this.baseConfig = baseConfig;
+        this.outputRoot = outputRoot;
+    }
+
+    // runs the games on a ForkJoinPool, at most parallelism games at a time
+    public SimulationResult run(int games, int parallelism) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        SimulationResult result = new SimulationResult(numPlayers);
+        long start = System.nanoTime();
+        try {
+            List<ForkJoinTask<CardGame>> tasks = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                int gameNumber = i + 1;
+                tasks.add(pool.submit(() -> playGame(gameNumber)));
+            }
+            for (ForkJoinTask<CardGame> task : tasks) {
+                CardGame game = task.get();
+                result.addGame(game.getWinnerId(), game.getTotalTurns(), game.getWinnerTurns());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated game failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    // plays one game with its own config, completion signal, decks, players and output folder
+    private CardGame playGame(int gameNumber) {
+        GameConfig config = baseConfig.copy();
+        if (config.isFileOutput()) {
+            String directory = outputRoot + "/game-" + gameNumber;
+            new File(directory + "/output").mkdirs();
+            config.setOutputDirectory(directory);
+        }
+        Long seed = config.getSeed() == null ? null : config.getSeed() + gameNumber; // a seeded run replays the same set of games
+        return new CardGame(numPlayers, new CardDeck(new ArrayList<>(pack), seed), config);
+    }
+
+    // a whole number from 1 to max, 0 for anything else, like CardGame's players argument
+    private static int parseCountArgument(String count, int max) {
+        try {
+            int value = Integer.parseInt(count);
+            return value <= max ? Math.max(value, 0) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // prints the usage line and why the arguments were refused, then exits
+    private static void usageError(String reason) {
+        System.err.println("Usage: java GameSimulation <players> <pack file> <games> [parallelism] [output root]");
+        if (reason != null) {
+            System.err.println(reason);
+        }
+        System.exit(1);
+    }
+
+    // usage: java GameSimulation <players> <pack file> <games> [parallelism] [output root]
+    // file output is off unless an output root is given, -Dcardgame.* options apply to every game
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3 || args.length > 5) {
+            usageError(null);
+        }
+        int numPlayers = parseCountArgument(args[0], CardGame.MAX_PLAYERS);
+        if (numPlayers == 0) {
+            usageError("<players> must be a whole number from 1 to " + CardGame.MAX_PLAYERS + ".");
+        }
+        int games = parseCountArgument(args[2], Integer.MAX_VALUE);
+        if (games == 0) {
+            usageError("<games> must be a whole number from 1 to " + Integer.MAX_VALUE + ".");
+        }
+        int parallelism = args.length > 3 ? parseCountArgument(args[3], MAX_PARALLELISM) : Runtime.getRuntime().availableProcessors();
+        if (parallelism == 0) {
+            usageError("[parallelism] must be a whole number from 1 to " + MAX_PARALLELISM + ".");
+        }
+        String outputRoot = args.length > 4 ? args[4] : null;
+
+        GameConfig config;
+        try {
+            config = GameConfig.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid -Dcardgame option: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        ArrayList<Card> pack;
+        try {
+            pack = PackLoader.loadCards(Path.of(args[1]), numPlayers);
+        } catch (InvalidPackException e) {
+            System.err.println("Invalid pack file: " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IOException e) {
+            System.err.println("Error reading the pack file " + args[1] + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        config.setFileOutput(outputRoot != null);
+        if (System.getProperty("cardgame.executor") == null) {
+            config.setExecutionMode(GameConfig.RUN_POOL).setPoolSize(1); // one thread per game, parallelism comes from running many games
+        }
+
+        SimulationResult result = new GameSimulation(numPlayers, pack, config, outputRoot).run(games, parallelism);
+        System.out.print(result.summary());
+    }
+}
+
+/*
+Headless batch runner for evaluating a pack file
+Runs many independent games of the same pack (reshuffled each time) concurrently on a ForkJoinPool.
+Every game has its own GameConfig copy, GameCompletion and output folder, so nothing is shared between games.
+
+Attributes:
+numPlayers: players in every game
+pack: cards copied into each game
+baseConfig: options copied for each game
+outputRoot: parent folder of the per-game output folders, null for no file output
+Methods:
+run(int games, int parallelism): plays the games and returns the aggregate statistics
+*/
@@ -0,0 +1,163 @@
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+
+public class GameSnapshot {
+    private static final int MAX_ATTEMPTS = 8; //tries for a consistent view before settling for a best effort one
+
+    private final long[] versions; //per player, -1 where the copy could not be validated
+    private final int[][] hands; //per player, shared with the previous snapshot where nothing changed
+    private final int[][] decks; //per deck, shared the same way
+    private final int[] changedPlayers; //ids re-read since the previous snapshot, every id for a full snapshot
+    private final int[] changedDecks;
+    private final boolean consistent;
+    private final int winnerId;
+
+    private GameSnapshot(long[] versions, int[][] hands, int[][] decks, int[] changedPlayers, int[] changedDecks,
+                         boolean consistent, int winnerId) {
+        this.versions = versions;
+        this.hands = hands;
+        this.decks = decks;
+        this.changedPlayers = changedPlayers;
+        this.changedDecks = changedDecks;
+        this.consistent = consistent;
+        this.winnerId = winnerId;
+    }
+
+    // reads the state of a running game without locking the players out; with a previous snapshot only the
+    // players that moved since, and the decks next to them, are copied again.
+    // Each player's version is read before and after the copy: the view is consistent if no player moved meanwhile
+    static GameSnapshot take(List<Player> players, List<Deck> deckList, int winnerId, GameSnapshot previous) {
+        int n = players.size();
+        GameSnapshot best = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long[] versions = new long[n];
+            for (int i = 0; i < n; i++) {
+                versions[i] = players.get(i).getVersion();
+            }
+            boolean[] playerChanged = new boolean[n];
+            int playerCount = 0;
+            for (int i = 0; i < n; i++) {
+                playerChanged[i] = previous == null || versions[i] != previous.versions[i];
+                if (playerChanged[i]) {
+                    playerCount++;
+                }
+            }
+
+            // a deck changes when its drawing player (same number) or its discarding player (one before) moves
+            int[][] hands = previous == null ? new int[n][] : previous.hands.clone();
+            int[][] decks = previous == null ? new int[n][] : previous.decks.clone();
+            int[] changedPlayers = new int[playerCount];
+            int[] changedDecks = new int[n];
+            int deckCount = 0;
+            for (int i = 0, p = 0; i < n; i++) {
+                if (playerChanged[i]) {
+                    hands[i] = players.get(i).readHand();
+                    changedPlayers[p++] = i + 1;
+                }
+                if (playerChanged[i] || playerChanged[(i + n - 1) % n]) {
+                    decks[i] = deckList.get(i).getValues();
+                    changedDecks[deckCount++] = i + 1;
+                }
+            }
+
+            VarHandle.acquireFence(); // the copies above are read before the versions below
+            boolean consistent = true;
+            for (int i = 0; i < n; i++) {
+                long version = players.get(i).getVersion();
+                if (version != versions[i] || (version & 1) != 0) {
+                    consistent = false;
+                    versions[i] = -1; // the next incremental snapshot copies this player again
+                }
+            }
+            best = new GameSnapshot(versions, hands, decks, changedPlayers, Arrays.copyOf(changedDecks, deckCount),
+                    consistent, winnerId);
+            if (consistent) {
+                break;
+            }
+            Thread.yield(); // let the moving player finish
+        }
+        return best;
+    }
+
+    // false if players kept moving during every attempt: each hand and deck is then a recent copy,
+    // but cards in the middle of a move may be missing or counted twice
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public int getPlayerCount() {
+        return hands.length;
+    }
+
+    // 0 while the game is running
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    public int[] getHand(int playerId) {
+        return hands[playerId - 1].clone();
+    }
+
+    // top card first
+    public int[] getDeck(int deckNumber) {
+        return decks[deckNumber - 1].clone();
+    }
+
+    // moves played by a player, or -1 if its copy could not be validated
+    public long getTurns(int playerId) {
+        long version = versions[playerId - 1];
+        return version < 0 ? -1 : version / 2;
+    }
+
+    // moves played by all players whose copy was validated
+    public long getTotalTurns() {
+        long total = 0;
+        for (long version : versions) {
+            if (version > 0) {
+                total += version / 2;
+            }
+        }
+        return total;
+    }
+
+    // players (by id) whose hands were copied again since the previous snapshot
+    public int[] getChangedPlayers() {
+        return changedPlayers.clone();
+    }
+
+    // decks (by number) copied again since the previous snapshot
+    public int[] getChangedDecks() {
+        return changedDecks.clone();
+    }
+
+    // one line for a dashboard or the log
+    public String summary() {
+        int cardsInDecks = 0;
+        for (int[] deck : decks) {
+            cardsInDecks += deck.length;
+        }
+        return "Snapshot: " + hands.length + " players, " + getTotalTurns() + " turns, " + cardsInDecks + " cards in decks, "
+                + changedPlayers.length + " players and " + changedDecks.length + " decks changed"
+                + (consistent ? "" : ", not consistent") + (winnerId != 0 ? ", Player " + winnerId + " has won" : "");
+    }
+}
+
+/*
+Read-only view of every hand and deck of a running game, see CardGame.snapshot()
+Players bump a per-player seqlock version around each move, which costs them two plain stores. A snapshot
+reads all versions, copies the state and checks the versions again, retrying a few times if anyone moved.
+Incremental snapshots only copy the players whose version changed and the decks either side of them,
+and share every other array with the previous snapshot, so polling an idle or slow game costs little
+more than reading one version per player.
+
+Attributes:
+versions: each player's version when copied, twice its number of moves
+hands / decks: copied card values
+changedPlayers / changedDecks: what was copied again
+Methods:
+take(...): builds a full or incremental snapshot
+isConsistent(): whether no player moved while it was taken
+getHand / getDeck / getTurns: state of one player or deck
+summary(): one line description
+*/
@@ -0,0 +1,105 @@
+public class Hand {
+    public static final int CAPACITY = 5; //4 cards between turns, 5 while a drawn card is held
+    public static final int WINNING_SIZE = 4;
+
+    private final int preferredValue;
+    private final int[] cards = new int[CAPACITY]; //card values in the order they were received
+    private int size = 0;
+    private int preferredCount = 0; //number of cards equal to preferredValue
+    private int otherMask = 0; //bit i set when cards[i] is not the preferred value
+    private final long[] received = new long[CAPACITY]; //value of added when each card arrived
+    private long added = 0; //cards added so far, the hand's clock
+
+    public Hand(int preferredValue) {
+        this.preferredValue = preferredValue;
+    }
+
+    public void add(int value) {
+        if (size == CAPACITY) {
+            throw new IllegalStateException("Hand already holds " + CAPACITY + " cards.");
+        }
+        cards[size] = value;
+        received[size] = added++;
+        if (value == preferredValue) {
+            preferredCount++;
+        } else {
+            otherMask |= 1 << size;
+        }
+        size++;
+    }
+
+    // removes the card at index, keeping the other cards in order
+    public int removeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for hand of " + size);
+        }
+        int value = cards[index];
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        System.arraycopy(received, index + 1, received, index, size - index - 1);
+        size--;
+        if (value == preferredValue) {
+            preferredCount--;
+        }
+        int lowerBits = otherMask & ((1 << index) - 1);
+        otherMask = lowerBits | ((otherMask >>> (index + 1)) << index); // shift the bits above index down with the cards
+        return value;
+    }
+
+    // index of the first card that is not the preferred value, or 0 if every card is preferred
+    public int discardIndex() {
+        return otherMask == 0 ? 0 : Integer.numberOfTrailingZeros(otherMask);
+    }
+
+    // true if card index is not the preferred value
+    public boolean isOther(int index) {
+        return (otherMask & (1 << index)) != 0;
+    }
+
+    // how many cards have arrived since the oldest non-preferred card, 0 if every card is preferred
+    public long oldestOtherAge() {
+        return otherMask == 0 ? 0 : added - received[discardIndex()];
+    }
+
+    public boolean isWinning() {
+        return size == WINNING_SIZE && preferredCount == WINNING_SIZE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return cards[index];
+    }
+
+    public int getPreferredValue() {
+        return preferredValue;
+    }
+
+    public int getPreferredCount() {
+        return preferredCount;
+    }
+
+    // backing array, only the first size() values are cards; callers must not modify it
+    public int[] values() {
+        return cards;
+    }
+}
+
+/*
+A player's hand of card values with incremental bookkeeping
+The count of preferred cards and a bitmask of non-preferred positions are updated on every add/remove,
+so the win check and the choice of card to discard are constant time and allocate nothing
+
+Attributes:
+cards: up to 5 card values, in the order they were received
+preferredCount: how many cards match the player's preferred value
+otherMask: bit per position, set when that card is not the preferred value
+received: when each card arrived, counted in cards added to the hand
+Methods:
+add(int value): adds a card at the end
+removeAt(int index): removes a card, keeping order
+discardIndex(): first non-preferred card, or 0 if all are preferred
+oldestOtherAge(): how long the oldest non-preferred card has been held, in cards received
+isWinning(): 4 cards, all preferred
+*/
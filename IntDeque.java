@@ -0,0 +1,88 @@
+public class IntDeque {
+    private int[] values; //circular buffer, capacity is always a power of two
+    private int head = 0; //index of the first value
+    private int size = 0;
+
+    public IntDeque(int initialCapacity) {
+        int capacity = 1;
+        while (capacity < Math.max(initialCapacity, 1)) {
+            capacity <<= 1;
+        }
+        values = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // returns the value at a position counted from the front
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[(head + index) & (values.length - 1)];
+    }
+
+    public void addLast(int value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    public int removeFirst() {
+        if (size == 0) {
+            throw new IllegalStateException("Deque is empty.");
+        }
+        int value = values[head];
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    // inserts a value so it ends up at the given position, shifting later values back
+    public void insert(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        if (size == values.length) {
+            grow();
+        }
+        int mask = values.length - 1;
+        for (int i = size; i > index; i--) {
+            values[(head + i) & mask] = values[(head + i - 1) & mask];
+        }
+        values[(head + index) & mask] = value;
+        size++;
+    }
+
+    private void grow() {
+        int[] larger = new int[values.length * 2];
+        for (int i = 0; i < size; i++) {
+            larger[i] = values[(head + i) & (values.length - 1)];
+        }
+        values = larger;
+        head = 0;
+    }
+}
+
+/*
+Growable double ended queue of primitive ints
+Used by Deck so drawing the top card is O(1) and no Card objects are kept on the hot path
+Not thread safe, callers hold the deck lock
+
+Attributes:
+values: circular buffer of values
+head: index of the first value
+size: number of values held
+Methods:
+addLast(int value): append to the back
+removeFirst(): remove and return the front value
+insert(int index, int value): insert at a position
+get(int index): read a value by position
+*/
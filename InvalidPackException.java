@@ -0,0 +1,19 @@
+public class InvalidPackException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final long lineNumber; //1-based line the problem was found on, 0 if it concerns the whole file
+
+    public InvalidPackException(String message, long lineNumber) {
+        super(lineNumber > 0 ? "Line " + lineNumber + ": " + message : message);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
+
+/*
+Thrown by PackLoader when a pack file does not follow the spec
+The message starts with the offending line number when there is one
+*/
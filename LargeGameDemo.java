@@ -0,0 +1,61 @@
+import java.io.File;
+import java.util.ArrayList;
+import player.card.Card;
+
+public class LargeGameDemo {
+
+    // usage: java -Xmx256m -Dcardgame.executor=pool LargeGameDemo [players]
+    // run it from an empty directory, it writes the usual output/ and player_N_log.txt files
+    public static void main(String[] args) throws InterruptedException {
+        int numPlayers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        GameConfig config = GameConfig.fromSystemProperties();
+        if (System.getProperty("cardgame.executor") == null) {
+            config.setExecutionMode(GameConfig.RUN_POOL); // thousands of platform threads is what this demo avoids
+        }
+        if (System.getProperty("cardgame.deck") == null) {
+            config.setDeckType(GameConfig.DECK_RING);
+        }
+        new File("output").mkdirs();
+
+        // values 1 to 4 only, so players 1-4 collect their hands quickly and the run measures scale, not luck
+        ArrayList<Card> pack = new ArrayList<>(8 * numPlayers);
+        for (int i = 0; i < 8 * numPlayers; i++) {
+            pack.add(new Card(1 + i % 4));
+        }
+
+        // sample heap usage while the game runs
+        Runtime runtime = Runtime.getRuntime();
+        long[] peakHeap = new long[1];
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap[0] = Math.max(peakHeap[0], runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        GameLog.setLevel(GameLog.Level.WARN); // keep the game's own messages out of the run
+        long startTime = System.nanoTime();
+        new CardGame(numPlayers, new CardDeck(pack), config);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        sampler.interrupt();
+        sampler.join();
+        System.out.println(numPlayers + " players, executor=" + config.getExecutionMode() + ", deck=" + config.getDeckType());
+        System.out.println("Game finished in " + elapsedMillis + " ms");
+        System.out.println("Peak heap used: " + (peakHeap[0] / (1024 * 1024)) + " MB of " + (runtime.maxMemory() / (1024 * 1024)) + " MB max");
+        System.out.println("Live threads at end: " + Thread.activeCount());
+    }
+}
+
+/*
+Runs one very large game (10,000 players by default) and reports time, peak heap and thread count
+Used to show that the pool and virtual executors keep memory bounded as the player count grows
+File descriptors stay bounded too: TurnLogger keeps at most MAX_OPEN_LOGS player logs open, so the
+default limit of 1024 open files is enough at 10,000 players and beyond
+*/
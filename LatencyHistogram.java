@@ -0,0 +1,99 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS; //buckets per power of two, about 3% resolution
+    private static final int BUCKETS = SUB_COUNT * (64 - SUB_BITS);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    // adds one value, e.g. a duration in nanoseconds; negative values count as 0
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // lower bound of the bucket holding the given percentile (0-100), 0 if nothing was recorded
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(lowestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // values below SUB_COUNT get a bucket each, above that every power of two is split into SUB_COUNT buckets
+    private static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return SUB_COUNT + shift * SUB_COUNT + sub;
+    }
+
+    private static long lowestValueOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_COUNT) / SUB_COUNT;
+        int sub = bucket % SUB_COUNT;
+        return (long) (SUB_COUNT + sub) << shift;
+    }
+
+    // one line summary with the unit divided out, e.g. summary(1000, "us")
+    public String summary(double unit, String unitName) {
+        return String.format("count %d, mean %.1f%s, p50 %.1f%s, p99 %.1f%s, max %.1f%s",
+                getCount(), getMean() / unit, unitName, getPercentile(50) / unit, unitName,
+                getPercentile(99) / unit, unitName, getMax() / unit, unitName);
+    }
+}
+
+/*
+Thread-safe log-linear histogram in the style of HdrHistogram
+Buckets are exact up to 32 and then split every power of two into 32 steps, so any recorded value is
+reported within about 3%, covering nanoseconds to hours in a fixed 1888 bucket array without allocating.
+
+Attributes:
+counts: values per bucket
+count / sum / max: totals for mean and max
+Methods:
+record(long value): adds a value
+getPercentile(double percentile): value at a percentile
+summary(double unit, String unitName): readable one line summary
+*/
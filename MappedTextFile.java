@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class MappedTextFile extends OutputStream {
+    private final Path path;
+    private MappedByteBuffer region; //mapped from offset 0, grown by remapping; no channel is kept open for it.
+                                     //Never unmapped by hand, the GC releases a mapping once nothing refers to it
+    private int position = 0; //end of the text written so far
+    private int highWater = 0; //furthest byte ever written, cleared again by rewrite()
+    private boolean closed = false;
+
+    // creates or truncates the file and maps its first initialSize bytes
+    public MappedTextFile(Path path, int initialSize) throws IOException {
+        this(path, initialSize, false);
+    }
+
+    // with append, keeps what the file holds and writes after it, like FileOutputStream(name, true)
+    public MappedTextFile(Path path, int initialSize, boolean append) throws IOException {
+        this.path = path;
+        try (FileChannel channel = append
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long existing = channel.size();
+            if (existing > Integer.MAX_VALUE / 2) {
+                throw new IOException("File " + path + " is too large to map.");
+            }
+            this.position = (int) existing;
+            this.highWater = position;
+            // the mapping outlives the channel, so an open file costs no file descriptor
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(Math.max(initialSize, 64), 2L * position));
+        }
+    }
+
+    // whether close() can put the finished file in place here: it replaces a file that may still be mapped
+    // until the next GC, which POSIX systems allow and Windows refuses
+    public static boolean isSupported() {
+        return !System.getProperty("os.name", "").startsWith("Windows");
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureCapacity(1);
+        region.put(position++, (byte) b);
+        highWater = Math.max(highWater, position);
+    }
+
+    // copies the bytes straight into the mapping, no system call unless the mapping has to grow
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureCapacity(length);
+        region.put(position, bytes, offset, length);
+        position += length;
+        highWater = Math.max(highWater, position);
+    }
+
+    // replaces the whole contents, used for files that always hold one snapshot like the deck files
+    public synchronized void rewrite(byte[] bytes, int length) throws IOException {
+        position = 0;
+        write(bytes, 0, length);
+        for (int i = position; i < highWater; i++) {
+            region.put(i, (byte) 0); // clear what is left of a longer earlier snapshot
+        }
+        highWater = position;
+    }
+
+    // data is already in the page cache, flushing to disk is left to the OS as with a normal stream
+    @Override
+    public void flush() {
+    }
+
+    // leaves exactly the bytes written: they go through a plain channel into a sibling file that was never mapped,
+    // which then replaces this one. The mapped file is never truncated, a mapping may outlive close() until the GC
+    // releases it and touching mapped pages past the end of a file crashes the JVM
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true; // every write checks this first, so nothing touches region after it is dropped below
+        ByteBuffer text = region.slice(0, position);
+        region = null;
+        Path finished = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(finished, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (text.hasRemaining()) {
+                    channel.write(text);
+                }
+            }
+            Files.move(finished, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(finished);
+            throw e;
+        }
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (closed) {
+            throw new IOException("File " + path + " is closed.");
+        }
+        long needed = (long) position + length;
+        if (needed <= region.capacity()) {
+            return;
+        }
+        long size = region.capacity();
+        while (size < needed) {
+            size *= 2; // doubling keeps remaps rare for long games
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("File " + path + " is too large to map.");
+        }
+        // both map the same file pages, so nothing written through the old mapping is lost; it is left to the GC
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
+
+/*
+Output file written through a memory mapping instead of write() calls
+The file is preallocated and mapped when opened and text is copied into the mapping at a cursor; until
+close() the file is padded with zero bytes after the cursor. close() writes the text once more through a
+plain channel into a file that was never mapped and renames it over the original, so the result is byte
+for byte what a FileWriter or FileOutputStream would have produced. No channel stays open between calls,
+so thousands of open files need no file descriptors. Mappings are never released by hand: a remap or
+close() only drops the reference and the GC unmaps it later, which is why close() replaces the file instead
+of truncating it. Windows refuses to replace a mapped file, so isSupported() is false there and GameConfig
+refuses "mmap" output.
+
+Attributes:
+region: the mapped part of the file, doubled and remapped when full
+position: cursor where the next bytes go
+highWater: end of the longest contents so far, so rewrite() can clear leftovers
+Methods:
+MappedTextFile(Path path, int initialSize, boolean append): continues an existing file instead of truncating it
+write(byte[] bytes, int offset, int length): appends, used for the player logs
+rewrite(byte[] bytes, int length): overwrites from the start, used for the deck files
+close(): replaces the file with one holding exactly the bytes written
+isSupported(): whether mapped output works on this platform
+*/
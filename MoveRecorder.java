@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class MoveRecorder {
+    public static final int MAGIC = 0x43475231; //"CGR1"
+
+    private byte[] bytes = new byte[4096];
+    private int length = 0;
+    private long moves = 0;
+
+    // layout: magic, players, pack size, pack values in dealing order, then the moves
+    public MoveRecorder(int numPlayers, int[] dealtPack) {
+        writeInt(MAGIC);
+        writeVarInt(numPlayers);
+        writeVarInt(dealtPack.length);
+        for (int value : dealtPack) {
+            writeVarInt(value);
+        }
+    }
+
+    // one move: the player's id and the position in their 5-card hand they discarded from
+    public synchronized void recordMove(int playerId, int discardIndex) {
+        writeVarInt(playerId);
+        writeByte(discardIndex);
+        moves++;
+    }
+
+    // ends the recording with a 0 id followed by the winner's id
+    public synchronized void recordWinner(int winnerId) {
+        writeVarInt(0);
+        writeVarInt(winnerId);
+    }
+
+    public synchronized long getMoveCount() {
+        return moves;
+    }
+
+    public synchronized byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public void saveTo(Path file) throws IOException {
+        Files.write(file, toByteArray());
+    }
+
+    private void writeInt(int value) {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    // 7 bits per byte, high bit set on every byte but the last
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[length++] = (byte) value;
+    }
+}
+
+/*
+Compact binary recording of a game, replayed by GameReplay
+Stores the pack in dealing order and, for every turn in the order it happened, the player id and the
+hand position they discarded from (usually 2-3 bytes per move). The drawn card is not stored, replay
+takes it from the top of the deck, which also checks the recording is consistent.
+
+Methods:
+recordMove(int playerId, int discardIndex): appends a move
+recordWinner(int winnerId): closes the recording
+saveTo(Path file): writes the recording to disk
+*/
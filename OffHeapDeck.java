@@ -0,0 +1,55 @@
+public class OffHeapDeck extends RingBufferDeck {
+    private final DeckArena arena; //holds this deck's cards and counters
+    private final int region; //offset of this deck inside the arena
+
+    public OffHeapDeck(int deckNumber, DeckArena arena) {
+        this(deckNumber, arena, "output", true);
+    }
+
+    public OffHeapDeck(int deckNumber, DeckArena arena, String directory, boolean fileOutput) {
+        super(deckNumber, arena.getCapacity(), directory, fileOutput);
+        this.arena = arena;
+        this.region = arena.allocate();
+    }
+
+    // the arena's VarHandle accessors give the acquire/release ordering the ring protocol needs
+    @Override
+    protected final long head() {
+        return arena.head(region);
+    }
+
+    @Override
+    protected final void setHead(long head) {
+        arena.setHead(region, head);
+    }
+
+    @Override
+    protected final long tail() {
+        return arena.tail(region);
+    }
+
+    @Override
+    protected final void setTail(long tail) {
+        arena.setTail(region, tail);
+    }
+
+    @Override
+    protected final int slot(int index) {
+        return arena.slot(region, index);
+    }
+
+    @Override
+    protected final void setSlot(int index, int value) {
+        arena.setSlot(region, index, value);
+    }
+}
+
+/*
+Deck whose cards live in a DeckArena outside the Java heap
+Works exactly like RingDeck, the protocol is shared in RingBufferDeck, but the ring and both counters sit
+in the game's shared direct buffer, so a deck costs the heap only this small object
+
+Attributes:
+arena: the game's off-heap storage
+region: where this deck's counters and slots start in the arena
+*/
@@ -0,0 +1,130 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import player.card.Card;
+
+public class PackLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // reads and validates a pack for numPlayers players in one pass, straight from bytes into an int array
+    public static int[] load(Path packFile, int numPlayers) throws IOException, InvalidPackException {
+        long expected = 8L * numPlayers;
+        if (numPlayers <= 0) {
+            throw new IllegalArgumentException("Need at least one player.");
+        }
+        if (expected > Integer.MAX_VALUE) {
+            throw new InvalidPackException("File must contain exactly " + expected + " lines, more than a pack can hold.", 0);
+        }
+        int[] values = new int[0]; //sized from the file once it is open, so a huge player count cannot exhaust the heap
+        long lineNumber = 1;
+        long lines = 0;
+        long value = 0;
+        int digits = 0;
+        boolean invalid = false; //current line has a character other than digits or a leading sign
+        boolean negative = false; //current line starts with '-', only "-0" (any number of zeros) is allowed
+        boolean lineStarted = false;
+        boolean carriageReturn = false; //'\r' seen, only allowed right before '\n'
+
+        try (FileChannel channel = FileChannel.open(packFile, StandardOpenOption.READ)) {
+            values = new int[(int) Math.min(expected, channel.size() / 2 + 1)]; // every line but the last takes 2 bytes or more
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        checkLine(lineNumber, digits, invalid);
+                        values = store(values, lines, value, expected);
+                        lines++;
+                        lineNumber++;
+                        value = 0;
+                        digits = 0;
+                        invalid = false;
+                        negative = false;
+                        lineStarted = false;
+                        carriageReturn = false;
+                        continue;
+                    }
+                    if (carriageReturn) {
+                        invalid = true; // '\r' in the middle of a line
+                    }
+                    boolean firstByte = !lineStarted;
+                    lineStarted = true;
+                    if (b >= '0' && b <= '9') {
+                        value = value * 10 + (b - '0');
+                        digits++;
+                        if (negative && value != 0 && !invalid) {
+                            throw new InvalidPackException("negative card values are not allowed.", lineNumber);
+                        }
+                        if (value > Integer.MAX_VALUE) {
+                            throw new InvalidPackException("value is too large.", lineNumber);
+                        }
+                    } else if (b == '-' && firstByte) {
+                        negative = true; // Integer.parseInt reads "-0" as 0, which the pack check always accepted
+                    } else if (b == '+' && firstByte) {
+                        continue; // a single leading '+' is accepted, as Integer.parseInt does
+                    } else if (b == '\r') {
+                        carriageReturn = true;
+                    } else {
+                        invalid = true;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        if (lineStarted) { // last line without a trailing newline
+            checkLine(lineNumber, digits, invalid);
+            values = store(values, lines, value, expected);
+            lines++;
+        }
+        if (lines != expected) {
+            throw new InvalidPackException("File must contain exactly " + expected + " lines, found " + lines + ".", 0);
+        }
+        return values;
+    }
+
+    // same as load(), boxed into Card objects for callers that work with the card API
+    public static ArrayList<Card> loadCards(Path packFile, int numPlayers) throws IOException, InvalidPackException {
+        int[] values = load(packFile, numPlayers);
+        ArrayList<Card> cards = new ArrayList<>(values.length);
+        for (int value : values) {
+            cards.add(new Card(value));
+        }
+        return cards;
+    }
+
+    // keeps the first expected values, growing the array if the file grew while it was read
+    private static int[] store(int[] values, long index, long value, long expected) {
+        if (index >= expected) {
+            return values; // too many lines, reported once the whole file is counted
+        }
+        if (index == values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(expected, 2L * values.length + 16));
+        }
+        values[(int) index] = (int) value;
+        return values;
+    }
+
+    private static void checkLine(long lineNumber, int digits, boolean invalid) throws InvalidPackException {
+        if (digits == 0 || invalid) {
+            throw new InvalidPackException("not a non-negative integer.", lineNumber);
+        }
+    }
+}
+
+/*
+Non-interactive pack file loader for large packs
+Reads the file through a 64 KB direct buffer and parses each line's digits directly into an int array,
+checking non-negativity and the 8 * players line count in the same pass. A line of ASCII text is
+accepted exactly when Integer.parseInt reads it as 0 or more, as the old Scanner loop did, so "+5" and "-0" are fine. The array is sized from the
+file's length rather than the player count, so a short file never costs 8 * players ints of heap.
+Errors are reported as InvalidPackException carrying the line number.
+
+Methods:
+load(Path packFile, int numPlayers): card values in file order
+loadCards(Path packFile, int numPlayers): the same values as Card objects
+*/
@@ -1,145 +1,316 @@
-import java.io.File;
-import java.io.FileWriter; 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntUnaryOperator;
 import player.card.Card;
 
-public class Player extends Thread { // Extend Thread to make Player a thread
+public class Player implements Runnable { // Runnable so the game can choose which threads run the players
+    public static final int MAX_DECK_SIZE = 5; //a player only discards into a deck holding fewer cards
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Player.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final int id; 
     private final int preferredValue; 
     private final Deck leftDeck;
-    private final Deck rightDeck;
-    private List<Card> hand = new ArrayList<>();
-    public static volatile boolean hasWon = false;
+    private final DiscardPile rightDeck; //a Deck, or a RemoteDeck when the next deck lives on another GameNode
+    private final TurnLogger logger; //writes this player's log file in the background
+    private final GameCompletion completion; //signalled when this game has a winner
+    private final boolean parkWhenIdle; //sleep until a neighbour moves instead of polling the decks
+    private volatile boolean waiting = false; //true while the player may be parked
+    private volatile Thread runner; //thread currently running this player in blocking mode
+    private Executor executor; //where cooperative slices are resubmitted
+    private boolean cooperative = false; //run in short slices on a shared pool instead of owning a thread
+    private boolean started = false; //initial log written, only touched by the running slice
+    private final AtomicBoolean scheduled = new AtomicBoolean(false); //true while a slice is queued or running
+    private final Hand hand; //card values with incremental win and discard bookkeeping
+    private MoveRecorder recorder; //records every move for GameReplay, null when not recording
+    private GameMetrics metrics; //null unless metrics are turned on
+    private DiscardStrategy discardStrategy = DiscardStrategy.first(); //picks the card to give away, set before the game starts
+    private final IntUnaryOperator discardChooser = this::chooseDiscard; //created once, runs inside the deck transaction
+    private int lastDiscardIndex; //hand position of the card given away in the current turn
+    private int lastDiscardedCard;
+    private volatile long version = 0; //seqlock for snapshots and the turn count: odd during a move, 2 more after each move, only written by this player
 
     // Constructor
-    public Player(int id, Deck leftDeck, Deck rightDeck) {
+    public Player(int id, Deck leftDeck, DiscardPile rightDeck, TurnLogger logger, GameCompletion completion, boolean parkWhenIdle) {
         this.id = id;
         this.preferredValue = id; 
         this.leftDeck = leftDeck;
         this.rightDeck = rightDeck;
+        this.logger = logger;
+        this.completion = completion;
+        this.parkWhenIdle = parkWhenIdle;
+        this.hand = new Hand(preferredValue);
+        leftDeck.setOnCardAdded(this::wake); // a card to draw may let us move
+        rightDeck.setOnCardDrawn(this::wake); // space to discard into may let us move
+    }
+
+    // hands the player to an executor; cooperative players give their thread back whenever they cannot move
+    public void startOn(Executor executor, boolean cooperative) {
+        this.executor = executor;
+        this.cooperative = cooperative;
+        scheduled.set(true);
+        executor.execute(this);
     }
 
     // main thread execution logic
     @Override
     public void run() {
-        System.out.println("Player " + id + " started.");
-        createLogFile(); // create log file for this player
-        logInitialState(); // log the initial state of the player's hand
+        if (cooperative) {
+            runSlice();
+            return;
+        }
+        runner = Thread.currentThread();
+        begin();
 
-        while (!Thread.currentThread().isInterrupted() && !hasWon) {
+        while (!Thread.currentThread().isInterrupted() && !completion.isFinished()) {
             if (checkWinningHand()) {
                 declareWinner(); // Declare victory if player has a winning hand
-                logGameEnd(true, id); // log the win to the player's file
                 break;
             }
 
-            // if leftDeck has cards and rightDeck isn't full, play the turn
-            if (leftDeck.getDeckSize() > 0 && rightDeck.getDeckSize() < 5) {
-                int[] playedCards = drawAndDiscard(); // perform a draw and discard action
-                logTurn(playedCards[1], leftDeck.getDeckNumber(), playedCards[0], rightDeck.getDeckNumber()); // log turn
+            // if leftDeck has cards and rightDeck isn't full, play the turn; the decks re-check both atomically
+            if (!canMove() || !playTurn()) {
+                recordIdle();
+                if (parkWhenIdle) {
+                    waitForMove(); // sleep until a neighbour changes one of our decks
+                }
             }
         }
     
         if (Thread.currentThread().isInterrupted()) {
-            System.out.println("Player " + id + " was interrupted.");
+            GameLog.debug("Player " + id + " was interrupted.");
         }
     }
 
-    // creates a log file for the player
-    private void createLogFile() {
-        try {
-            File file = new File("player_" + id + "_log.txt");
-            if (file.createNewFile()) {
-                System.out.println("Log file created for Player " + id);
+    // plays every move currently possible, then returns the pool thread until a neighbour wakes us
+    private void runSlice() {
+        if (!started) {
+            started = true;
+            begin();
+        }
+        while (!completion.isFinished() && !Thread.currentThread().isInterrupted()) {
+            if (checkWinningHand()) {
+                declareWinner();
+                return;
+            }
+            if (canMove() && playTurn()) {
+                continue;
+            }
+            recordIdle();
+            scheduled.set(false);
+            // a neighbour may have moved after canMove(), keep going only if nobody else rescheduled us
+            if (!canMove() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    // announces the player and writes the initial state of their hand to the log
+    public void begin() {
+        GameLog.trace("Player " + id + " started.");
+        logInitialState(); // log the initial state of the player's hand
+    }
+
+    // one lockstep turn on the caller's thread: declares a win or plays a single move, false if neither was possible
+    public boolean step() {
+        if (checkWinningHand()) {
+            declareWinner();
+            return true;
+        }
+        if (canMove() && playTurn()) {
+            return true;
+        }
+        recordIdle();
+        return false;
+    }
+
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setDiscardStrategy(DiscardStrategy discardStrategy) {
+        this.discardStrategy = discardStrategy;
+    }
+
+    // records this player's moves from now on
+    public void setRecorder(MoveRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    private boolean playTurn() {
+        return drawAndDiscard(); // perform a draw and discard action, logging the turn
+    }
+
+    // cheap unlocked hint, the turn itself is checked again while both decks are held
+    private boolean canMove() {
+        return leftDeck.getDeckSize() > 0 && rightDeck.getDeckSize() < MAX_DECK_SIZE;
+    }
+
+    // parks until wake() is called, rechecking after announcing the wait so no wake-up is lost
+    private void waitForMove() {
+        waiting = true;
+        if (!canMove() && !completion.isFinished()) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            LockSupport.park(this);
+            if (metrics != null) {
+                metrics.recordIdleTime(System.nanoTime() - start);
+            }
+        }
+        waiting = false;
+    }
+
+    private void recordIdle() {
+        if (metrics != null) {
+            metrics.recordIdle(id);
+        }
+    }
+
+    // called by the decks after a neighbour draws or discards
+    private void wake() {
+        if (cooperative) {
+            if (!completion.isFinished() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this); // queue a new slice
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false); // the game is shutting down
+                }
             }
-        } catch (IOException e) {
-            System.err.println("Error creating log file for Player " + id);
+        } else if (waiting) {
+            LockSupport.unpark(runner);
         }
     }
 
     // logs the initial state of the player's hand
     private void logInitialState() {
-        try (FileWriter writer = new FileWriter("player_" + id + "_log.txt")) {
-            writer.write("Player " + id + " initial hand: " + summarizeHand() + "\n\n");
-        } catch (IOException e) {
-            System.err.println("Error writing initial state for Player " + id);
-        }
+        logger.logInitialState(id, hand.values(), hand.size());
     }
 
     // logs the details of a turn
     private void logTurn(int drawnCard, int fromDeck, int discardedCard, int toDeck) {
-        try {
-            String turnLog = "Player " + id + " draws " + drawnCard + " from Deck " + fromDeck + "\n" +
-                             "Player " + id + " discards " + discardedCard + " to Deck " + toDeck + "\n" +
-                             "Current Hand: " + summarizeHand() + "\n\n";
-            Files.write(Path.of("player_" + id + "_log.txt"), turnLog.getBytes(), StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            System.err.println("Error logging turn for Player " + id);
+        if (metrics == null) {
+            logger.logTurn(id, drawnCard, fromDeck, discardedCard, toDeck, hand.values(), hand.size());
+            return;
         }
+        long start = System.nanoTime();
+        logger.logTurn(id, drawnCard, fromDeck, discardedCard, toDeck, hand.values(), hand.size());
+        metrics.recordTurnLog(System.nanoTime() - start);
     }
 
     // logs the end of the game for the player
     private void logGameEnd(boolean isWinner, int winnerId) {
-        try {
-            String endLog = isWinner
-                    ? "Player " + id + " wins the game!\n"
-                    : "Player " + winnerId + " has won. Player " + id + " exits.\n";
-            endLog += "Final hand: " + summarizeHand() + "\n";
-            Files.write(Path.of("player_" + id + "_log.txt"), endLog.getBytes(), StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            System.err.println("Error logging game end for Player " + id);
-        }
+        logger.logGameEnd(id, isWinner, winnerId, hand.values(), hand.size());
     }
 
-    // draws a card from left deck and discards one to right deck
-    private int[] drawAndDiscard() {
-        Card drawnCard = leftDeck.drawTopCard(); // draw a card from left deck
-        hand.add(drawnCard);
-        System.out.println("Player " + id + " drew card " + drawnCard.getValue());
-
-        // discard a non-preferred card
-        Card discardedCard = null;
-        for (int i = 0; i < hand.size(); i++) {
-            if (hand.get(i).getValue() != preferredValue) {
-                discardedCard = hand.remove(i); // remove non-preferred card from the hand
-                rightDeck.addBottomCard(discardedCard); // add card to bottom of right deck
-                System.out.println("Player " + id + " discarded card " + discardedCard.getValue());
-                return new int[]{discardedCard.getValue(), drawnCard.getValue()};
+    // draws a card from left deck and discards one to right deck, package-private for the benchmarks
+    // returns false, with nothing moved, if the left deck is empty or the right deck is full
+    boolean drawAndDiscard() {
+        long start = metrics != null ? System.nanoTime() : 0;
+        boolean moved;
+        if (recorder != null) {
+            synchronized (recorder) { // one move at a time, so the recorded order can be replayed
+                moved = drawAndDiscardCards();
             }
+        } else {
+            moved = drawAndDiscardCards();
+        }
+        if (moved && metrics != null) {
+            metrics.recordTurn(id, System.nanoTime() - start);
+        }
+        return moved;
+    }
+
+    private boolean drawAndDiscardCards() {
+        // draw from the left deck and discard to the right deck as one atomic step; the version is odd meanwhile,
+        // so a snapshot reading the hand or either deck now retries. The store-store fence keeps the move's writes
+        // from becoming visible before the odd version (a release store only orders the writes before it), and the
+        // release store of the even version publishes them; on x86 the fence only stops compiler reordering
+        long before = (long) VERSION.get(this);
+        VERSION.setOpaque(this, before + 1);
+        VarHandle.storeStoreFence();
+        int drawnCard = leftDeck.drawAndDiscard(rightDeck, MAX_DECK_SIZE, discardChooser);
+        if (drawnCard == Deck.EMPTY) {
+            VERSION.setRelease(this, before); // nothing moved, so nothing for a snapshot to re-read
+            return false;
         }
+        VERSION.setRelease(this, before + 2);
+        if (recorder != null) {
+            recorder.recordMove(id, lastDiscardIndex);
+        }
+        if (GameLog.isDebugEnabled()) {
+            GameLog.debug("Player " + id + " drew card " + drawnCard);
+            GameLog.debug("Player " + id + " discarded card " + lastDiscardedCard);
+        }
+        logTurn(drawnCard, leftDeck.getDeckNumber(), lastDiscardedCard, rightDeck.getDeckNumber());
+        return true;
+    }
 
-        // if all cards match the preferred value, discard the first card
-        discardedCard = hand.remove(0);
-        rightDeck.addBottomCard(discardedCard); // add the card to bottom of right deck
-        System.out.println("Player " + id + " discarded card " + discardedCard.getValue() + " (all cards matched preferred value).");
-        return new int[]{discardedCard.getValue(), drawnCard.getValue()};
+    // called by the left deck with the drawn card while both decks are held, returns the card to discard
+    private int chooseDiscard(int drawnCard) {
+        hand.add(drawnCard);
+        // the game's strategy picks the card, except that a non-preferred card held too long always goes first
+        lastDiscardIndex = hand.oldestOtherAge() > DiscardStrategy.MAX_HOLD_TURNS
+                ? hand.discardIndex()
+                : discardStrategy.chooseDiscard(hand);
+        lastDiscardedCard = hand.removeAt(lastDiscardIndex);
+        return lastDiscardedCard;
     }
 
     // checks if player has a winning hand
     private boolean checkWinningHand() {
-        return hand.size() == 4 && hand.stream().allMatch(card -> card.getValue() == preferredValue);
+        return hand.isWinning();
     }
 
     // declares the player as winner
+    // only the first player to claim the win is the winner, a player losing the race exits like the others
     private void declareWinner() {
-        hasWon = true;
-        System.out.println("Player " + id + " wins the game!");
+        if (completion.signalWinner(id)) { // release the main thread waiting for a winner
+            GameLog.info("Player " + id + " wins the game!");
+            logGameEnd(true, id); // log the win to the player's file
+        }
+    }
+
+    // called by the game once every player has stopped, writes a loser's exit lines with the winner's id
+    public void exitGame(int winnerId) {
+        if (winnerId > 0 && winnerId != id) {
+            GameLog.trace("Player " + id + " exits.");
+            logGameEnd(false, winnerId);
+        }
+    }
+
+    // the seqlock version, twice the number of moves; read before and after copying the player's state
+    long getVersion() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    // unlocked copy of the hand, only meaningful if getVersion() is even and the same before and after
+    int[] readHand() {
+        return Arrays.copyOf(hand.values(), Math.min(hand.size(), Hand.CAPACITY));
     }
 
-    public static boolean hasGameEnded() {
-        return hasWon; // Provide access to the flag if needed
+    // number of draw and discard turns this player has played, each completed move adds 2 to the version
+    public int getTurnCount() {
+        return (int) (getVersion() >>> 1);
     }
 
     // summarizes the player's hand as a string of card values
     public String summarizeHand() {
         StringBuilder summary = new StringBuilder();
-        for (Card card : hand) {
-            summary.append(card.getValue()).append(" ");
+        for (int i = 0; i < hand.size(); i++) {
+            summary.append(hand.get(i)).append(" ");
         }
         return summary.toString().trim();
     }
@@ -147,16 +318,27 @@ public class Player extends Thread { // Extend Thread to make Player a thread
     // adds a card to the player's hand
     public void addCardToHand(Card card) {
         if (card != null) {
-            hand.add(card);
-            System.out.println("Player " + id + " added card " + card.getValue() + " to their hand.");
+            hand.add(card.getValue());
+            GameLog.trace("Player " + id + " added card " + card.getValue() + " to their hand.");
         } else {
-            System.out.println("Player " + id + " attempted to add a null card to their hand!");
+            GameLog.warn("Player " + id + " attempted to add a null card to their hand!");
         }
     }
 
-    // returns the player's hand
+    // deals count card values into the hand in one step, used when setting up the game
+    public void addValuesToHand(int[] values, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            hand.add(values[i]);
+        }
+    }
+
+    // returns a copy of the player's hand as Card objects
     public List<Card> getHand() {
-        return hand;
+        List<Card> cards = new ArrayList<>(hand.size());
+        for (int i = 0; i < hand.size(); i++) {
+            cards.add(new Card(hand.get(i)));
+        }
+        return cards;
     }
 
     // returns the player's ID
@@ -174,12 +356,16 @@ Attributes:
 id: unique identifier for players (player 1, player 2, …)
 value: integer that will represent player number (1, 2, 3…)
 leftDeck
-rightDeck 
+rightDeck: a DiscardPile, the first deck of the next node when running distributed
 Methods:
+startOn(Executor executor, boolean cooperative): runs the player on a thread from the executor
 run(): main method where player’s draw, check cards, discard cards
+step(): plays a single turn, used by the lockstep mode
 checkWinningHand(): checks if all the cards in player’s hands have the same value 
 declareWinner(): declares a winner 
+exitGame(int winnerId): logs a losing player's exit once the game is over
 preferredCard(): player’s preferred card, based on their playerID
 discardCard(): finds and discards card that doesn’t match the preferred value 
 addCardToHand(Card card): add cards to player’s hand at start of game  
+getVersion() / readHand(): seqlock version and unlocked hand copy, used by GameSnapshot
 */
@@ -0,0 +1,167 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.LockSupport;
+
+public class RemoteDeck implements DiscardPile {
+    public static final int BATCH_CARDS = 256; //most cards sent in one message
+
+    private final int deckNumber;
+    private final SocketChannel channel; //to the JVM that owns the real deck
+    private final ByteBuffer outgoing = ByteBuffer.allocateDirect(4 + 4 * BATCH_CARDS); //count, then card values
+    private final ByteBuffer credit = ByteBuffer.allocateDirect(4); //cards drawn from the real deck
+    private final int[] pending = new int[BATCH_CARDS]; //cards discarded but not yet sent, guarded by this
+    private int pendingCount = 0;
+    private int size; //cards in the real deck as far as this side knows, never less than the truth
+    private Runnable onCardDrawn; //wakes the player discarding here, set before the players start
+    private volatile boolean closing = false;
+    private volatile long cardsSent = 0;
+    private final Thread writerThread;
+    private final Thread creditThread;
+
+    // initialSize is what the real deck was dealt, channel is already connected to its RemoteDeckReceiver
+    public RemoteDeck(int deckNumber, int initialSize, SocketChannel channel) {
+        this.deckNumber = deckNumber;
+        this.channel = channel;
+        this.size = initialSize;
+        writerThread = new Thread(this::writeBatches, "deck-" + deckNumber + "-sender");
+        creditThread = new Thread(this::readCredits, "deck-" + deckNumber + "-credits");
+        writerThread.setDaemon(true);
+        creditThread.setDaemon(true);
+        writerThread.start();
+        creditThread.start();
+    }
+
+    @Override
+    public int getDeckNumber() {
+        return deckNumber;
+    }
+
+    @Override
+    public void setOnCardDrawn(Runnable onCardDrawn) {
+        this.onCardDrawn = onCardDrawn;
+    }
+
+    // sent cards count until the other side reports them drawn, so a player never overfills the real deck
+    @Override
+    public synchronized int getDeckSize() {
+        return size;
+    }
+
+    // a player's drawAndDiscard() already holds the monitor while it checks the size and calls this
+    @Override
+    public synchronized void addBottomValue(int value) {
+        if (pendingCount == pending.length) {
+            throw new IllegalStateException("Deck " + getDeckNumber() + " has too many unsent cards.");
+        }
+        pending[pendingCount++] = value;
+        size++;
+        if (GameLog.isDebugEnabled()) {
+            GameLog.debug("Card " + value + " added to Deck " + getDeckNumber());
+        }
+        LockSupport.unpark(writerThread);
+    }
+
+    public long getCardsSent() {
+        return cardsSent;
+    }
+
+    // sends everything discarded so far, then ends the card stream; call once the local players have stopped
+    public void finishSending() {
+        closing = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // closes the connection, after finishSending() and once the draws from the other side no longer matter
+    public void close() {
+        closing = true;
+        try {
+            channel.close();
+            creditThread.join();
+        } catch (IOException e) {
+            GameLog.warn("Error closing the link for Deck " + getDeckNumber());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // sender thread: whatever piled up while the last batch was on the wire goes out as the next batch
+    private void writeBatches() {
+        int[] batch = new int[BATCH_CARDS];
+        try {
+            while (true) {
+                boolean last = closing; // read before taking the cards, nothing is added once closing is set
+                int count;
+                synchronized (this) {
+                    count = pendingCount;
+                    System.arraycopy(pending, 0, batch, 0, count);
+                    pendingCount = 0;
+                }
+                if (count == 0) {
+                    if (last) {
+                        break;
+                    }
+                    LockSupport.park(this);
+                    continue;
+                }
+                outgoing.clear();
+                outgoing.putInt(count);
+                for (int i = 0; i < count; i++) {
+                    outgoing.putInt(batch[i]);
+                }
+                outgoing.flip();
+                while (outgoing.hasRemaining()) {
+                    channel.write(outgoing); // from the direct buffer, no extra copy into the socket
+                }
+                cardsSent += count;
+            }
+            channel.shutdownOutput(); // tells the receiver no more cards are coming
+        } catch (IOException e) {
+            GameLog.error("Error sending cards to Deck " + getDeckNumber(), e);
+        }
+    }
+
+    // credit thread: frees space as the owning JVM reports draws, waking the player discarding here
+    private void readCredits() {
+        try {
+            while (RemoteDeckReceiver.readFully(channel, credit, 4)) {
+                int drawn = credit.getInt(0);
+                synchronized (this) {
+                    size -= drawn;
+                }
+                if (onCardDrawn != null) {
+                    onCardDrawn.run();
+                }
+            }
+        } catch (EOFException e) {
+            // the other side closed mid-message while shutting down
+        } catch (IOException e) {
+            if (!closing) {
+                GameLog.error("Error reading draws for Deck " + getDeckNumber(), e);
+            }
+        }
+    }
+}
+
+/*
+Local stand-in for a deck that lives in another JVM, used by the last player of a GameNode
+Discards are queued and sent in batches over a loopback SocketChannel from direct buffers by a sender
+thread, so the player never blocks on the socket. The real deck sends back how many cards have been
+drawn, and the known size only drops when those credits arrive, so the 5 card limit holds across JVMs.
+
+Attributes:
+pending: cards waiting to be sent
+size: cards sent or waiting, minus the draws reported back
+writerThread / creditThread: move cards out and credits in
+Methods:
+getDeckSize(): conservative size of the real deck
+addBottomValue(int value): queue a discarded card for sending
+finishSending(): flush the remaining cards and end the stream
+close(): close the connection
+*/
@@ -0,0 +1,133 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class RemoteDeckReceiver {
+    private final Deck deck; //the real deck, filled from the other JVM
+    private final SocketChannel channel; //from the RemoteDeck of the upstream JVM
+    private final ByteBuffer incoming = ByteBuffer.allocateDirect(4 * RemoteDeck.BATCH_CARDS);
+    private final ByteBuffer header = ByteBuffer.allocateDirect(4);
+    private final ByteBuffer credit = ByteBuffer.allocateDirect(4);
+    private final AtomicInteger unreportedDraws = new AtomicInteger(); //draws not yet sent back
+    private volatile boolean closing = false;
+    private volatile long cardsReceived = 0;
+    private final Thread readerThread;
+    private final Thread creditThread;
+
+    public RemoteDeckReceiver(Deck deck, SocketChannel channel) {
+        this.deck = deck;
+        this.channel = channel;
+        deck.setOnCardDrawn(this::cardDrawn); // the discarding player is remote, tell it instead
+        readerThread = new Thread(this::readBatches, "deck-" + deck.getDeckNumber() + "-receiver");
+        creditThread = new Thread(this::writeCredits, "deck-" + deck.getDeckNumber() + "-draws");
+        readerThread.setDaemon(true);
+        creditThread.setDaemon(true);
+        readerThread.start();
+        creditThread.start();
+    }
+
+    public long getCardsReceived() {
+        return cardsReceived;
+    }
+
+    // waits until the upstream JVM has closed its card stream, so every card in flight is in the deck
+    public void awaitEndOfStream() {
+        try {
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void close() {
+        closing = true;
+        LockSupport.unpark(creditThread);
+        try {
+            creditThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            GameLog.warn("Error closing the link for Deck " + deck.getDeckNumber());
+        }
+    }
+
+    // reads exactly length bytes into buffer from position 0; false on a clean end of stream before any byte
+    static boolean readFully(SocketChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Connection closed mid-message.");
+            }
+        }
+        return true;
+    }
+
+    // called on the drawing player's thread, only bumps a counter
+    private void cardDrawn() {
+        unreportedDraws.incrementAndGet();
+        LockSupport.unpark(creditThread);
+    }
+
+    private void readBatches() {
+        try {
+            while (readFully(channel, header, 4)) {
+                int count = header.getInt(0);
+                readFully(channel, incoming, 4 * count);
+                for (int i = 0; i < count; i++) {
+                    deck.addBottomValue(incoming.getInt(4 * i)); // saves the deck and wakes the drawing player as usual
+                }
+                cardsReceived += count;
+            }
+        } catch (IOException e) {
+            GameLog.error("Error receiving cards for Deck " + deck.getDeckNumber(), e);
+        }
+    }
+
+    // sends draws back in batches, however many happened while the last report was being written
+    private void writeCredits() {
+        try {
+            while (true) {
+                int drawn = unreportedDraws.getAndSet(0);
+                if (drawn == 0) {
+                    if (closing) {
+                        return;
+                    }
+                    LockSupport.park(this);
+                    continue;
+                }
+                credit.clear();
+                credit.putInt(drawn).flip();
+                while (credit.hasRemaining()) {
+                    channel.write(credit);
+                }
+            }
+        } catch (IOException e) {
+            if (!closing) {
+                GameLog.warn("Could not report draws from Deck " + deck.getDeckNumber() + ": " + e.getMessage());
+            }
+        }
+    }
+}
+
+/*
+Receiving end of a deck shared between two JVMs
+Reads batches of cards from the upstream RemoteDeck into the real local deck and reports draws from
+that deck back, which is what lets the upstream player discard again.
+
+Attributes:
+deck: the local deck the cards go into
+unreportedDraws: draws waiting to be sent back as one credit message
+readerThread / creditThread: move cards in and credits out
+Methods:
+awaitEndOfStream(): wait for the last card in flight
+close(): stop reporting draws and close the connection
+*/
@@ -0,0 +1,153 @@
+import java.util.function.IntUnaryOperator;
+import player.card.Card;
+
+public abstract class RingBufferDeck extends Deck {
+    private final int capacity;
+    private final int mask; //positions wrap with capacity - 1
+
+    protected RingBufferDeck(int deckNumber, int capacity, String directory, boolean fileOutput) {
+        super(deckNumber, directory, fileOutput);
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two.");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    // storage of the ring, the only part that differs between subclasses. head is only advanced by the reading
+    // player and tail only by the writing player; both are read with acquire and written with release semantics,
+    // so a slot written before a tail update is visible to the player that reads the new tail
+    protected abstract long head();
+
+    protected abstract void setHead(long head);
+
+    protected abstract long tail();
+
+    protected abstract void setTail(long tail);
+
+    // index is already wrapped to 0..capacity - 1, slots are plain reads and writes
+    protected abstract int slot(int index);
+
+    protected abstract void setSlot(int index, int value);
+
+    @Override
+    public int getDeckSize() {
+        return (int) (tail() - head()); //returns deck size without taking the deck monitor
+    }
+
+    @Override
+    public int drawTopValue() {
+        long currentHead = head();
+        if (currentHead == tail()) {
+            return EMPTY; // deck is empty
+        }
+        int value = slot((int) currentHead & mask);
+        setHead(currentHead + 1); // publish the draw to the writing player
+        contentsChanged(); // update the file after modifying the deck
+        notifyCardDrawn(); // the deck has space for the discarding player again
+        return value;
+    }
+
+    @Override
+    public void addBottomValue(int value) {
+        long currentTail = tail();
+        if (currentTail - head() == capacity) {
+            throw new IllegalStateException("Deck " + getDeckNumber() + " is full.");
+        }
+        setSlot((int) currentTail & mask, value);
+        setTail(currentTail + 1); // publish the card to the reading player
+        if (GameLog.isDebugEnabled()) {
+            GameLog.debug("Card " + value + " added to Deck " + getDeckNumber());
+        }
+        contentsChanged(); // save updated deck to file
+        notifyCardAdded(); // the drawing player has a card to take
+    }
+
+    // no locks needed: the calling player is the only reader of this deck and the only writer of target,
+    // so neither check can be invalidated by a neighbour before the cards move
+    @Override
+    public int drawAndDiscard(DiscardPile target, int targetLimit, IntUnaryOperator chooseDiscard) {
+        if (getDeckSize() == 0 || target.getDeckSize() >= targetLimit) {
+            return EMPTY;
+        }
+        int drawn = drawTopValue();
+        target.addBottomValue(chooseDiscard.applyAsInt(drawn));
+        return drawn;
+    }
+
+    @Override
+    public void addBottomValues(int[] values, int count) {
+        long currentTail = tail();
+        if (currentTail - head() + count > capacity) {
+            throw new IllegalStateException("Deck " + getDeckNumber() + " cannot take " + count + " more cards.");
+        }
+        for (int i = 0; i < count; i++) {
+            setSlot((int) (currentTail + i) & mask, values[i]);
+        }
+        setTail(currentTail + count); // publish all the cards at once
+        notifyCardAdded();
+    }
+
+    // inserts a card at a position counted from the top, shifting the cards below it towards the tail.
+    // Moves cards the reading player may be about to draw, so only call it before the players start, e.g. while dealing
+    @Override
+    public void assignCard(Card card, int position) {
+        long currentHead = head();
+        long currentTail = tail();
+        if (position < 0 || position > currentTail - currentHead) {
+            throw new IndexOutOfBoundsException("Invalid position for card insertion.");
+        }
+        if (currentTail - currentHead == capacity) {
+            throw new IllegalStateException("Deck " + getDeckNumber() + " is full.");
+        }
+        for (long i = currentTail; i > currentHead + position; i--) {
+            setSlot((int) i & mask, slot((int) (i - 1) & mask));
+        }
+        setSlot((int) (currentHead + position) & mask, card.getValue());
+        setTail(currentTail + 1);
+    }
+
+    @Override
+    public int[] getValues() {
+        long currentHead = head();
+        int[] values = new int[(int) (tail() - currentHead)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = slot((int) (currentHead + i) & mask);
+        }
+        return values;
+    }
+
+    @Override
+    public String getValueString() {
+        long currentHead = head();
+        long currentTail = tail();
+        if (currentHead == currentTail) { // check if deck is empty
+            GameLog.trace("Deck " + getDeckNumber() + " is empty!");
+        }
+        StringBuilder value = new StringBuilder();
+        for (long i = currentHead; i < currentTail; i++) {
+            value.append(slot((int) i & mask)).append(" ");
+        }
+        if (value.length() > 0) {
+            value.setLength(value.length() - 1);
+        }
+        return value.toString();
+    }
+}
+
+/*
+Deck kept in a fixed-capacity ring of card values, whatever memory holds the ring
+Each deck has exactly one writer (the player on its left) and one reader (the player on its right),
+so draws and adds only need head/tail counters with acquire/release ordering instead of the Deck monitor.
+The draw and discard protocol lives here once; RingDeck keeps the ring on the heap and OffHeapDeck in a DeckArena
+
+Attributes:
+capacity: number of slots, a power of two
+Methods:
+head() / tail() / slot() (and setters): storage accessors implemented by the subclasses
+drawTopValue(): O(1) removal of the top card, EMPTY if empty
+addBottomValue(int value): O(1) append, fails if the ring is full
+assignCard(Card card, int position): insertion while the deck is being set up, before the players start
+drawAndDiscard(...): lock-free turn, safe because each deck has one reading and one writing player
+getValues() / getValueString(): the cards from top to bottom
+*/
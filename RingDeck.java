@@ -0,0 +1,61 @@
+public class RingDeck extends RingBufferDeck {
+    public static final int DEFAULT_CAPACITY = 8; // a deck never holds more than 5 cards during play
+
+    private final int[] slots; // fixed ring of card values, index = position & (capacity - 1)
+    private volatile long head = 0; // next position to draw from, only advanced by the reading player
+    private volatile long tail = 0; // next position to add to, only advanced by the writing player
+
+    public RingDeck(int deckNumber, int capacity) {
+        this(deckNumber, capacity, true);
+    }
+
+    public RingDeck(int deckNumber, int capacity, boolean fileOutput) {
+        this(deckNumber, capacity, "output", fileOutput);
+    }
+
+    public RingDeck(int deckNumber, int capacity, String directory, boolean fileOutput) {
+        super(deckNumber, capacity, directory, fileOutput);
+        this.slots = new int[capacity];
+    }
+
+    // volatile reads and writes give the acquire/release ordering the ring protocol needs
+    @Override
+    protected final long head() {
+        return head;
+    }
+
+    @Override
+    protected final void setHead(long head) {
+        this.head = head;
+    }
+
+    @Override
+    protected final long tail() {
+        return tail;
+    }
+
+    @Override
+    protected final void setTail(long tail) {
+        this.tail = tail;
+    }
+
+    @Override
+    protected final int slot(int index) {
+        return slots[index];
+    }
+
+    @Override
+    protected final void setSlot(int index, int value) {
+        slots[index] = value;
+    }
+}
+
+/*
+Deck backed by a fixed-capacity ring buffer on the heap
+The draw and discard protocol is in RingBufferDeck, this class only holds the ring
+
+Attributes:
+slots: array of card values, used as a circular buffer
+head: position of the top card, moved by the reader
+tail: position after the bottom card, moved by the writer
+*/
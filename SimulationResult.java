@@ -0,0 +1,86 @@
+public class SimulationResult {
+    private final int[] wins; //wins per player id, index 0 unused
+    private int games = 0;
+    private long totalTurns = 0; //turns by all players, summed over games
+    private long minTurns = Long.MAX_VALUE;
+    private long maxTurns = 0;
+    private long totalWinnerTurns = 0;
+    private long elapsedNanos = 0;
+
+    public SimulationResult(int numPlayers) {
+        this.wins = new int[numPlayers + 1];
+    }
+
+    // adds one finished game to the totals
+    public synchronized void addGame(int winnerId, long turns, int winnerTurns) {
+        games++;
+        wins[winnerId]++;
+        totalTurns += turns;
+        minTurns = Math.min(minTurns, turns);
+        maxTurns = Math.max(maxTurns, turns);
+        totalWinnerTurns += winnerTurns;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    // number of games won by a player
+    public int getWins(int playerId) {
+        return wins[playerId];
+    }
+
+    public double getMeanTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    public long getMinTurns() {
+        return games == 0 ? 0 : minTurns;
+    }
+
+    public long getMaxTurns() {
+        return maxTurns;
+    }
+
+    public double getMeanWinnerTurns() {
+        return games == 0 ? 0 : (double) totalWinnerTurns / games;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games / (elapsedNanos / 1e9);
+    }
+
+    // readable report of the whole run
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(games).append(" games in ").append(elapsedNanos / 1_000_000).append(" ms (")
+               .append(String.format("%.1f", getGamesPerSecond())).append(" games/s)\n");
+        summary.append("Turns to win, all players: mean ").append(String.format("%.1f", getMeanTurns()))
+               .append(", min ").append(getMinTurns()).append(", max ").append(getMaxTurns()).append("\n");
+        summary.append("Turns to win, winner only: mean ").append(String.format("%.1f", getMeanWinnerTurns())).append("\n");
+        summary.append("Wins per player:\n");
+        for (int id = 1; id < wins.length; id++) {
+            if (wins[id] > 0) {
+                summary.append("  Player ").append(id).append(": ").append(wins[id])
+                       .append(String.format(" (%.1f%%)", 100.0 * wins[id] / games)).append("\n");
+            }
+        }
+        return summary.toString();
+    }
+}
+
+/*
+Aggregate statistics of a GameSimulation run
+
+Attributes:
+wins: how many games each player won
+totalTurns / minTurns / maxTurns: turns played by all players per game
+totalWinnerTurns: turns the winner needed per game
+Methods:
+addGame(int winnerId, long turns, int winnerTurns): records one finished game
+summary(): text report with winner distribution and turns-to-win
+*/
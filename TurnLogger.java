@@ -0,0 +1,388 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+public class TurnLogger {
+    // record types, stored in the first slot of each record
+    private static final int INITIAL = 0;
+    private static final int TURN = 1;
+    private static final int GAME_END = 2;
+    private static final int SHUTDOWN = 3;
+    private static final int PREPARED = 4; //first and last id of a range of logs created by openLogs()
+
+    // record layout: type, player id, four type specific values, hand size, hand values
+    private static final int HAND_SIZE = 6;
+    private static final int HAND_START = 7;
+    private static final int BUFFER_SIZE = 1024; //pending text per player, small so thousands of logs stay cheap
+    private static final int MAX_OPEN_LOGS = 128; //files held open at once, far below the usual limit of 1024 descriptors
+    private static final int MAPPED_LOG_SIZE = 64 * 1024; //initial mapping per player log, doubled as needed
+    private static final int QUEUE_CAPACITY = 8192; //records waiting for the writer before the players have to wait
+
+    private final ArrayBlockingQueue<int[]> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<Integer, PlayerLog> logs = new HashMap<>(); //pending text per player, only used by the writer thread
+    private final LinkedHashMap<Integer, OutputStream> writers = new LinkedHashMap<>(16, 0.75f, true); //open files, least recently used first
+    private final Set<PlayerLog> unflushed = new HashSet<>();
+    private final Set<Integer> prepared = new HashSet<>(); //logs created by openLogs(), kept by the first record, writer thread only
+    private byte[] encoded = new byte[256]; //scratch buffer for the current line
+    private final String directory; //folder holding the player logs
+    private final boolean mapped; //write the logs through memory mapped files instead of buffered streams
+    private final Thread writerThread; //null when logging is stubbed out
+    private volatile boolean closed = false; //records logged after close() are dropped
+
+    public TurnLogger() {
+        this(true, ".");
+    }
+
+    public TurnLogger(boolean enabled) {
+        this(enabled, ".");
+    }
+
+    public TurnLogger(boolean enabled, String directory) {
+        this(enabled, directory, false);
+    }
+
+    public TurnLogger(boolean enabled, String directory, boolean mapped) {
+        this.directory = directory;
+        this.mapped = mapped;
+        if (enabled) {
+            writerThread = new Thread(this::writeRecords, "turn-logger");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            writerThread = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return writerThread != null;
+    }
+
+    public String logFileName(int playerId) {
+        return directory + "/player_" + playerId + "_log.txt";
+    }
+
+    // creates (or truncates) the logs of players firstId to lastId in one go on the calling thread, so every file
+    // exists before the players start; no file is kept open, the writer thread appends to them later.
+    // The writer thread learns which logs are ready from a queued record, so only it touches the per-player state;
+    // call before anything is logged, so that record comes first
+    public void openLogs(int firstId, int lastId) {
+        if (writerThread == null) {
+            return;
+        }
+        int from = firstId; //start of the current run of logs created without an error
+        for (int id = firstId; id <= lastId; id++) {
+            try {
+                Files.newOutputStream(Path.of(logFileName(id))).close(); // CREATE and TRUNCATE_EXISTING by default
+            } catch (IOException e) {
+                GameLog.error("Error creating log file for Player " + id, e);
+                queuePrepared(from, id - 1);
+                from = id + 1;
+            }
+        }
+        queuePrepared(from, lastId);
+    }
+
+    private void queuePrepared(int firstId, int lastId) {
+        if (firstId <= lastId) {
+            enqueue(new int[]{PREPARED, firstId, lastId});
+        }
+    }
+
+    // queues the opening line of a player's log, truncating any previous log
+    public void logInitialState(int playerId, int[] hand, int handSize) {
+        if (writerThread != null) {
+            enqueue(record(INITIAL, playerId, 0, 0, 0, 0, hand, handSize));
+        }
+    }
+
+    // queues a draw and discard along with the hand after the turn
+    public void logTurn(int playerId, int drawnCard, int fromDeck, int discardedCard, int toDeck, int[] hand, int handSize) {
+        if (writerThread != null) {
+            enqueue(record(TURN, playerId, drawnCard, fromDeck, discardedCard, toDeck, hand, handSize));
+        }
+    }
+
+    // queues the trailer written when the game ends for a player
+    public void logGameEnd(int playerId, boolean isWinner, int winnerId, int[] hand, int handSize) {
+        if (writerThread != null) {
+            enqueue(record(GAME_END, playerId, isWinner ? 1 : 0, winnerId, 0, 0, hand, handSize));
+        }
+    }
+
+    // writes everything queued so far and closes the player logs
+    public synchronized void close() {
+        if (closed || writerThread == null) {
+            return;
+        }
+        closed = true;
+        put(new int[]{SHUTDOWN});
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(int[] record) {
+        if (!closed) { // nothing drains the queue any more, it could only fill up
+            put(record);
+        }
+    }
+
+    // waits while the queue is full, so a writer that falls behind slows the players down instead of filling the heap.
+    // The game interrupts its players to stop them, which must not lose a turn they already played, so an
+    // interrupt only ends the wait once the record is queued and is then passed back to the caller
+    private void put(int[] record) {
+        if (records.offer(record)) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                records.put(record);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int[] record(int type, int playerId, int a, int b, int c, int d, int[] hand, int handSize) {
+        int[] record = new int[HAND_START + handSize];
+        record[0] = type;
+        record[1] = playerId;
+        record[2] = a;
+        record[3] = b;
+        record[4] = c;
+        record[5] = d;
+        record[HAND_SIZE] = handSize;
+        System.arraycopy(hand, 0, record, HAND_START, handSize);
+        return record;
+    }
+
+    // background loop: formats records in queue order and flushes whenever the queue runs dry
+    private void writeRecords() {
+        StringBuilder line = new StringBuilder(128);
+        try {
+            while (true) {
+                int[] record = records.take();
+                while (record != null) {
+                    if (record[0] == SHUTDOWN) {
+                        closeWriters();
+                        return;
+                    }
+                    if (record[0] == PREPARED) {
+                        markPrepared(record[1], record[2]);
+                    } else {
+                        write(record, line);
+                    }
+                    record = records.poll();
+                }
+                flushWriters();
+            }
+        } catch (InterruptedException e) {
+            closeWriters();
+        }
+    }
+
+    private void write(int[] record, StringBuilder line) {
+        int id = record[1];
+        line.setLength(0);
+        switch (record[0]) {
+            case INITIAL:
+                line.append("Player ").append(id).append(" initial hand: ");
+                appendHand(record, line).append("\n\n");
+                break;
+            case TURN:
+                line.append("Player ").append(id).append(" draws ").append(record[2]).append(" from Deck ").append(record[3]).append("\n")
+                    .append("Player ").append(id).append(" discards ").append(record[4]).append(" to Deck ").append(record[5]).append("\n")
+                    .append("Current Hand: ");
+                appendHand(record, line).append("\n\n");
+                break;
+            default:
+                if (record[2] == 1) {
+                    line.append("Player ").append(id).append(" wins the game!\n");
+                } else {
+                    line.append("Player ").append(record[3]).append(" has won. Player ").append(id).append(" exits.\n");
+                }
+                line.append("Final hand: ");
+                appendHand(record, line).append("\n");
+                break;
+        }
+        PlayerLog log = playerLog(id);
+        try {
+            if (record[0] == INITIAL && !prepared.remove(id)) {
+                restart(log); // truncates, like the initial log line always did
+            }
+            append(log, encode(line), line.length());
+        } catch (IOException e) {
+            GameLog.error("Error writing log for Player " + id, e);
+        }
+    }
+
+    // the files exist and are empty, so these logs are appended to from their first line
+    private void markPrepared(int firstId, int lastId) {
+        for (int id = firstId; id <= lastId; id++) {
+            playerLog(id).truncate = false;
+            prepared.add(id);
+        }
+    }
+
+    private PlayerLog playerLog(int id) {
+        PlayerLog log = logs.get(id);
+        if (log == null) {
+            log = new PlayerLog(id);
+            logs.put(id, log);
+        }
+        return log;
+    }
+
+    // drops whatever the player's log held so far, the next write starts the file afresh
+    private void restart(PlayerLog log) throws IOException {
+        log.length = 0;
+        log.truncate = true;
+        OutputStream writer = writers.remove(log.playerId);
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    // buffers the line in memory, writing the player's earlier text out first if it does not fit
+    private void append(PlayerLog log, byte[] bytes, int length) throws IOException {
+        if (log.length + length > log.pending.length) {
+            writeOut(log);
+        }
+        if (length > log.pending.length) {
+            writerFor(log).write(bytes, 0, length); // longer than the whole buffer, straight to the file
+            return;
+        }
+        System.arraycopy(bytes, 0, log.pending, log.length, length);
+        log.length += length;
+        unflushed.add(log);
+    }
+
+    private void writeOut(PlayerLog log) throws IOException {
+        if (log.length > 0) {
+            writerFor(log).write(log.pending, 0, log.length);
+            log.length = 0;
+        }
+    }
+
+    // the player's open file, reopened for appending if it was closed to make room for others
+    private OutputStream writerFor(PlayerLog log) throws IOException {
+        OutputStream writer = writers.get(log.playerId); // also marks it as most recently used
+        if (writer != null) {
+            return writer;
+        }
+        writer = openLog(log.playerId, !log.truncate);
+        log.truncate = false;
+        writers.put(log.playerId, writer);
+        if (writers.size() > MAX_OPEN_LOGS) {
+            Iterator<OutputStream> eldest = writers.values().iterator();
+            OutputStream closing = eldest.next();
+            eldest.remove();
+            close(closing);
+        }
+        return writer;
+    }
+
+    // unbuffered, the text is already collected per player
+    private OutputStream openLog(int id, boolean append) throws IOException {
+        if (mapped) {
+            return new MappedTextFile(Path.of(logFileName(id)), MAPPED_LOG_SIZE, append); // cut to size when closed
+        }
+        return new FileOutputStream(logFileName(id), append);
+    }
+
+    // log lines are plain ASCII, so each char maps straight to one byte
+    private byte[] encode(StringBuilder line) {
+        if (encoded.length < line.length()) {
+            encoded = new byte[line.length() * 2];
+        }
+        for (int i = 0; i < line.length(); i++) {
+            encoded[i] = (byte) line.charAt(i);
+        }
+        return encoded;
+    }
+
+    private static StringBuilder appendHand(int[] record, StringBuilder line) {
+        for (int i = 0; i < record[HAND_SIZE]; i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(record[HAND_START + i]);
+        }
+        return line;
+    }
+
+    private void flushWriters() {
+        for (PlayerLog log : unflushed) {
+            try {
+                writeOut(log);
+            } catch (IOException e) {
+                GameLog.error("Error writing log for Player " + log.playerId, e);
+            }
+        }
+        unflushed.clear();
+    }
+
+    private void closeWriters() {
+        flushWriters();
+        for (OutputStream writer : writers.values()) {
+            close(writer);
+        }
+        writers.clear();
+    }
+
+    private static void close(OutputStream writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            GameLog.error("Error closing player log.", e);
+        }
+    }
+
+    // text queued for one player's log but not yet written to the file
+    private static class PlayerLog {
+        final int playerId;
+        final byte[] pending = new byte[BUFFER_SIZE];
+        int length = 0;
+        boolean truncate = true; //the next open starts the file afresh instead of appending
+
+        PlayerLog(int playerId) {
+            this.playerId = playerId;
+        }
+    }
+}
+
+/*
+Writes all player log files from one background thread
+Players only queue small int[] records (ids and card values) and the writer thread turns them into the
+exact lines the logs always had. Each player's text is buffered in memory and written out when its buffer
+fills or the queue runs dry; only the MAX_OPEN_LOGS most recently used files stay open, the rest are closed
+and reopened for appending, so a game never needs one file descriptor per player.
+Records from one player are queued by that player's thread, so one FIFO queue keeps each log in turn order.
+The queue is bounded: if the disk cannot keep up, players wait for the writer instead of queueing without limit.
+
+Attributes:
+records: bounded queue of pending log records
+logs: pending bytes per player log
+writers: open FileOutputStream (or MappedTextFile when mapped) per recently written log, least recently used first
+writerThread: daemon thread draining the queue
+Methods:
+openLogs(int firstId, int lastId): creates a range of player logs up front
+logInitialState / logTurn / logGameEnd: queue a record for a player
+close(): drain the queue, flush and close every log
+*/
@@ -0,0 +1,122 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import player.card.Card;
+
+public class GameBenchmarks {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static boolean fileOutput = false; //--io writes the real deck files and player logs
+    private static List<Integer> playerCounts = Arrays.asList(4, 16, 64);
+    private static List<String> selected = Arrays.asList("game", "strategy");
+    private static final int STRATEGY_GAMES = 100; //seeded games per discard strategy and player count
+
+    // one measured iteration, returns the number of operations it performed
+    interface Workload {
+        long run() throws Exception;
+    }
+
+    // whole games are too long and too noisy for JMH, so they keep this harness; build and run from the repository root:
+    //   mvn -B -Pjmh package
+    //   java -cp target/benchmarks.jar GameBenchmarks [--only=game,strategy] [--players=4,16,64] [--io]
+    // deck, turn and pack benchmarks are JMH benchmarks in benchmarks/jmh, run with java -jar target/benchmarks.jar
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            if (arg.startsWith("--only=")) {
+                selected = Arrays.asList(arg.substring("--only=".length()).split(","));
+            } else if (arg.startsWith("--players=")) {
+                playerCounts = new ArrayList<>();
+                for (String count : arg.substring("--players=".length()).split(",")) {
+                    playerCounts.add(Integer.parseInt(count));
+                }
+            } else if (arg.equals("--io")) {
+                fileOutput = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (fileOutput) {
+            new File("output").mkdirs();
+        }
+
+        GameLog.setLevel(GameLog.Level.WARN); // keep the game's console output out of the numbers
+        if (selected.contains("game")) {
+            for (int players : playerCounts) {
+                for (boolean fast : new boolean[]{false, true}) {
+                    for (String deckType : new String[]{GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP}) {
+                        String name = "games, " + players + " players, " + (fast ? "values 1-4" : "8 of each value") + ", " + deckType
+                                + (fileOutput ? ", file output" : ", no file output");
+                        bench(name, () -> game(players, fast, deckType));
+                    }
+                }
+            }
+        }
+        if (selected.contains("strategy")) {
+            for (int players : playerCounts) {
+                for (String strategy : new String[]{GameConfig.DISCARD_FIRST, GameConfig.DISCARD_NEIGHBOUR, GameConfig.DISCARD_NEAREST}) {
+                    strategy(players, strategy);
+                }
+            }
+        }
+    }
+
+    // the same seeded lockstep games under one discard strategy: turns until someone wins and wall time per game
+    private static void strategy(int players, String strategy) throws InterruptedException {
+        GameConfig config = new GameConfig().setExecutionMode(GameConfig.RUN_LOCKSTEP).setSeed(1L)
+                .setFileOutput(false).setDiscardStrategy(strategy);
+        GameSimulation simulation = new GameSimulation(players, pack(players, false), config, null);
+        simulation.run(STRATEGY_GAMES / 10, 1); // warmup
+        SimulationResult result = simulation.run(STRATEGY_GAMES, 1);
+        System.out.printf("%-75s %10.1f turns, winner %8.1f turns, %8.3f ms/game%n",
+                "discard " + strategy + ", " + players + " players, 8 of each value",
+                result.getMeanTurns(), result.getMeanWinnerTurns(), 1000.0 / result.getGamesPerSecond());
+    }
+
+    // runs warmup and measured iterations and prints the throughput
+    private static void bench(String name, Workload workload) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            workload.run();
+        }
+        double[] opsPerSecond = new double[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long ops = workload.run();
+            opsPerSecond[i] = ops / ((System.nanoTime() - start) / 1e9);
+        }
+        double mean = Arrays.stream(opsPerSecond).average().orElse(0);
+        double variance = Arrays.stream(opsPerSecond).map(x -> (x - mean) * (x - mean)).sum() / MEASURED_ITERATIONS;
+        System.out.printf("%-75s %14.1f ops/s  +- %5.1f%%  (%.0f ns/op)%n",
+                name, mean, 100 * Math.sqrt(variance) / mean, 1e9 / mean);
+    }
+
+    // plays one full game, returns 1 so the result reads as games per second
+    private static long game(int players, boolean fast, String deckType) {
+        GameConfig config = new GameConfig().setDeckType(deckType).setFileOutput(fileOutput);
+        new CardGame(players, new CardDeck(pack(players, fast)), config);
+        return 1;
+    }
+
+    // 8 copies of every value 1..players, or only values 1..4 for games that end quickly
+    private static ArrayList<Card> pack(int players, boolean fast) {
+        ArrayList<Card> cards = new ArrayList<>(8 * players);
+        for (int i = 0; i < 8 * players; i++) {
+            cards.add(new Card(fast ? 1 + i % 4 : 1 + i / 8));
+        }
+        return cards;
+    }
+}
+
+/*
+Benchmark harness for whole games and discard strategies
+Plain Java with warmup and measured iterations: a game runs for milliseconds to seconds and starts its own
+threads, which suits repeated runs better than JMH's fixed time iterations. The small, hot operations
+(deck handoff, a single turn, pack loading) are JMH benchmarks in benchmarks/jmh.
+Console output from the game is discarded and file output is off unless --io is given,
+which separates the compute cost from the I/O cost
+
+Benchmarks:
+game: games per second for each player count, pack distribution and deck type
+strategy: mean turns to a win and time per game for each discard strategy, on the same seeded deals
+*/
@@ -0,0 +1,65 @@
+import java.nio.file.Path;
+import jmh.Workloads;
+import player.card.Card;
+
+public class GameWorkloads implements Workloads {
+    @Override
+    public Handoff newHandoff(String deckType) {
+        Deck deck = new GameConfig().setDeckType(deckType).setFileOutput(false).newDeck(1);
+        return new Handoff() {
+            private int next = 0; //only touched by the discarding thread
+
+            @Override
+            public int discard() {
+                int size = deck.getDeckSize();
+                if (size < Player.MAX_DECK_SIZE) {
+                    deck.addBottomValue(next++ & 1023); // a full deck is left alone, as a player would
+                }
+                return size;
+            }
+
+            @Override
+            public int draw() {
+                return deck.drawTopValue();
+            }
+        };
+    }
+
+    // a player holding none of its preferred cards, so every turn gives a card away
+    @Override
+    public Turn newTurn(String deckType) {
+        GameConfig config = new GameConfig().setDeckType(deckType).setFileOutput(false);
+        Deck left = config.newDeck(1);
+        Deck right = config.newDeck(2);
+        Player player = new Player(1, left, right, new TurnLogger(false), new GameCompletion(), true);
+        for (int i = 0; i < 4; i++) {
+            player.addCardToHand(new Card(i + 2));
+        }
+        return new Turn() {
+            private int turn = 0;
+
+            @Override
+            public int turn() {
+                left.addBottomValue((turn++ & 7) + 1);
+                player.drawAndDiscard();
+                return right.drawTopValue();
+            }
+        };
+    }
+
+    @Override
+    public int[] loadValues(Path pack, int players) throws Exception {
+        return PackLoader.load(pack, players);
+    }
+
+    @Override
+    public Object loadCards(Path pack, int players) throws Exception {
+        return PackLoader.loadCards(pack, players);
+    }
+}
+
+/*
+The game operations measured by the JMH benchmarks in package jmh
+In the default package like the game classes and the other benchmarks/ harnesses, outside the jmh folder
+that holds package jmh; the benchmarks reach it through jmh.Workloads
+*/
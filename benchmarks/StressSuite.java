@@ -0,0 +1,248 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import player.card.Card;
+
+public class StressSuite {
+    private static final String WINNABLE = "winnable"; // 8 copies of every value 1..players, anyone can win
+    private static final String ADVERSARIAL = "adversarial"; // only 4 copies of each value, half the pack wanted by nobody
+
+    private static List<Integer> playerCounts = Arrays.asList(1, 2, 3, 10, 100, 1_000, 10_000);
+    private static List<String> packKinds = Arrays.asList(WINNABLE, ADVERSARIAL);
+    private static long timeBudgetMillis = 120_000; //per game
+    private static long heapBaseMegabytes = 64; //heap budget is this plus heapBytesPerPlayer for every player
+    private static long heapBytesPerPlayer = 4096;
+    private static long seed = 42;
+    private static final List<String> failures = new ArrayList<>();
+
+    // build and run from the repository root:
+    //   mvn -B -Pjmh package
+    //   java -Xmx512m -cp target/benchmarks.jar StressSuite [--players=1,2,1000] [--packs=winnable,adversarial]
+    //        [--time-ms=120000] [--heap-mb=64] [--heap-per-player=4096] [--seed=42]
+    // -Dcardgame.* options apply to every game, players run on the pool with ring decks unless set otherwise
+    // games grow faster than linearly, --players=50000 needs --time-ms=600000 or more on a single core
+    public static void main(String[] args) throws InterruptedException {
+        for (String arg : args) {
+            if (arg.startsWith("--players=")) {
+                playerCounts = new ArrayList<>();
+                for (String count : arg.substring("--players=".length()).split(",")) {
+                    playerCounts.add(Integer.parseInt(count));
+                }
+            } else if (arg.startsWith("--packs=")) {
+                packKinds = Arrays.asList(arg.substring("--packs=".length()).split(","));
+            } else if (arg.startsWith("--time-ms=")) {
+                timeBudgetMillis = Long.parseLong(arg.substring("--time-ms=".length()));
+            } else if (arg.startsWith("--heap-mb=")) {
+                heapBaseMegabytes = Long.parseLong(arg.substring("--heap-mb=".length()));
+            } else if (arg.startsWith("--heap-per-player=")) {
+                heapBytesPerPlayer = Long.parseLong(arg.substring("--heap-per-player=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        GameConfig config = GameConfig.fromSystemProperties().setMetrics(true); // metrics track the deepest deck
+        if (System.getProperty("cardgame.executor") == null) {
+            config.setExecutionMode(GameConfig.RUN_POOL); // tens of thousands of platform threads would measure the OS
+        }
+        if (System.getProperty("cardgame.deck") == null) {
+            config.setDeckType(GameConfig.DECK_RING);
+        }
+        if (System.getProperty("cardgame.fileOutput") == null) {
+            config.setFileOutput(false);
+        }
+        if (config.isFileOutput()) {
+            new File("output").mkdirs();
+        }
+
+        GameLog.setLevel(GameLog.Level.WARN); // keep the game's console output out of the report
+        System.out.println("executor=" + config.getExecutionMode() + ", deck=" + config.getDeckType()
+                + ", file output=" + config.isFileOutput() + ", seed=" + seed + ", time budget=" + timeBudgetMillis + " ms");
+        System.out.printf("%-12s %8s %10s %12s %12s %10s %12s %8s  %s%n",
+                "pack", "players", "ms", "turns", "turns/s", "heap MB", "bytes/player", "growth", "result");
+        outer:
+        for (String kind : packKinds) {
+            double previousMillisPerPlayer = 0;
+            for (int players : playerCounts) {
+                Run run = play(kind, players, config);
+                double millisPerPlayer = run.millis / (double) players;
+                String growth = previousMillisPerPlayer > 0 ? String.format("%.2fx", millisPerPlayer / previousMillisPerPlayer) : "";
+                previousMillisPerPlayer = millisPerPlayer;
+                System.out.printf("%-12s %8d %10d %12d %12.0f %10.1f %12d %8s  %s%n",
+                        kind, players, run.millis, run.turns, run.turns / Math.max(run.millis / 1000.0, 1e-3),
+                        run.peakHeap / (1024.0 * 1024), run.peakHeap / players, growth, run.problems.isEmpty() ? "ok" : "FAILED");
+                for (String problem : run.problems) {
+                    failures.add(kind + ", " + players + " players: " + problem);
+                }
+                if (run.timedOut) {
+                    break outer; // the game is still running and would skew every later measurement
+                }
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("All invariants held.");
+            System.exit(0);
+        }
+        failures.forEach(failure -> System.out.println("FAILED " + failure));
+        System.exit(1); // a timed out game cannot be stopped, exit takes its threads down
+    }
+
+    // the outcome of one game and everything wrong with it
+    private static class Run {
+        long millis;
+        long turns;
+        long peakHeap; //above the heap in use before the game
+        boolean timedOut;
+        final List<String> problems = new ArrayList<>();
+    }
+
+    // plays one game within the time budget while sampling the heap, then checks the invariants
+    private static Run play(String kind, int players, GameConfig baseConfig) throws InterruptedException {
+        Run run = new Run();
+        ArrayList<Card> pack = pack(kind, players);
+        int[] expected = countValues(pack, players + 1);
+        GameConfig config = baseConfig.copy();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        long[] peakHeap = new long[1];
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap[0] = Math.max(peakHeap[0], runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        CompletableFuture<CardGame> game = new CompletableFuture<>();
+        Thread gameThread = new Thread(() -> {
+            try {
+                game.complete(new CardGame(players, new CardDeck(pack, seed + players), config));
+            } catch (Throwable t) {
+                game.completeExceptionally(t);
+            }
+        }, "stress-game");
+        gameThread.setDaemon(true);
+        gameThread.start();
+        CardGame finished = null;
+        try {
+            finished = game.get(timeBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            run.timedOut = true;
+            run.problems.add("no winner within " + timeBudgetMillis + " ms");
+        } catch (ExecutionException e) {
+            run.problems.add("game failed: " + e.getCause());
+        }
+        run.millis = (System.nanoTime() - start) / 1_000_000;
+        sampler.interrupt();
+        sampler.join();
+        run.peakHeap = Math.max(0, peakHeap[0] - baseline);
+
+        long heapBudget = heapBaseMegabytes * 1024 * 1024 + heapBytesPerPlayer * players;
+        if (run.peakHeap > heapBudget) {
+            run.problems.add("used " + run.peakHeap / 1024 + " KB of heap, budget " + heapBudget / 1024 + " KB");
+        }
+        if (finished != null) {
+            run.turns = finished.getTotalTurns();
+            checkInvariants(finished, kind, expected, run.problems);
+        }
+        return run;
+    }
+
+    // card conservation, hand sizes, the 5 card deck limit and exactly one winner
+    private static void checkInvariants(CardGame game, String kind, int[] expected, List<String> problems) {
+        int[] actual = new int[expected.length];
+        for (Player player : game.getPlayers()) {
+            List<Card> hand = player.getHand();
+            if (hand.size() != Hand.WINNING_SIZE) {
+                problems.add("Player " + player.getPlayerId() + " holds " + hand.size() + " cards");
+            }
+            for (Card card : hand) {
+                actual[card.getValue()]++;
+            }
+        }
+        for (Deck deck : game.getDecks()) {
+            int[] values = deck.getValues();
+            if (values.length > Player.MAX_DECK_SIZE) {
+                problems.add("Deck " + deck.getDeckNumber() + " ended with " + values.length + " cards");
+            }
+            for (int value : values) {
+                actual[value]++;
+            }
+        }
+        for (int value = 0; value < expected.length; value++) {
+            if (actual[value] != expected[value]) {
+                problems.add(expected[value] + " cards of value " + value + " were dealt but " + actual[value] + " are left");
+            }
+        }
+
+        long maxDepth = game.getMetrics().getMaxDeckDepth();
+        if (maxDepth > Player.MAX_DECK_SIZE) {
+            problems.add("a deck reached " + maxDepth + " cards during play");
+        }
+
+        int winnerId = game.getWinnerId();
+        if (winnerId < 1 || winnerId > game.getPlayers().size()) {
+            problems.add("winner id is " + winnerId);
+            return;
+        }
+        Player winner = game.getPlayers().get(winnerId - 1);
+        if (!winner.getHand().stream().allMatch(card -> card.getValue() == winnerId)) {
+            problems.add("winner Player " + winnerId + " does not hold a winning hand");
+        }
+    }
+
+    private static ArrayList<Card> pack(String kind, int players) {
+        ArrayList<Card> cards = new ArrayList<>(8 * players);
+        for (int i = 0; i < 8 * players; i++) {
+            if (kind.equals(WINNABLE)) {
+                cards.add(new Card(1 + i / 8));
+            } else if (kind.equals(ADVERSARIAL)) {
+                // a win needs every copy of a value, and the junk keeps the decks busy without helping anyone
+                cards.add(new Card(i < 4 * players ? 1 + i / 4 : players + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown pack: " + kind);
+            }
+        }
+        return cards;
+    }
+
+    private static int[] countValues(List<Card> pack, int maxValue) {
+        int[] counts = new int[maxValue + 1];
+        for (Card card : pack) {
+            counts[card.getValue()]++;
+        }
+        return counts;
+    }
+}
+
+/*
+Stress and scaling suite for large player counts
+Plays whole games from 1 up to 10,000 players (50,000 on request) on generated packs, each within a time and heap budget,
+checks the game's invariants afterwards and prints how time and memory grow with the player count.
+Exits with status 1 if any check failed, so it can gate a build. test/GameInvariantsTest makes the same
+checks on games of up to 100 players in every mvn test run.
+
+Packs:
+winnable: 8 copies of every value, shuffled with a fixed seed
+adversarial: exactly 4 copies of each value and 4 cards per player that nobody prefers, so a player only wins
+once it holds every copy of its value
+
+Checks:
+every card dealt is still in a hand or a deck, every hand holds 4 cards,
+no deck held more than 5 cards at any point (from GameMetrics), one valid winner holding a winning hand
+*/
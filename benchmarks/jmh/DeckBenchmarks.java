@@ -0,0 +1,58 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmarks {
+    private static final Workloads WORKLOADS = Workloads.load();
+
+    @Param({"list", "ring", "offheap"})
+    public String deckType;
+
+    private Workloads.Handoff deck; //shared by the discarding and the drawing thread of one group
+
+    @Setup(Level.Iteration)
+    public void createDeck() {
+        deck = WORKLOADS.newHandoff(deckType);
+    }
+
+    // one thread discards into the deck while another draws from it, as two neighbouring players do;
+    // neither waits, an attempt on a full or empty deck counts as an operation like a player's idle turn
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public int discard() {
+        return deck.discard(); // returned values are consumed by JMH
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public int draw() {
+        return deck.draw();
+    }
+}
+
+/*
+JMH benchmark of the deck handoff between a discarding and a drawing player, for every deck type
+Run with: mvn -B -Pjmh package && java -jar target/benchmarks.jar DeckBenchmarks
+*/
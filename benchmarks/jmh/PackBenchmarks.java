@@ -0,0 +1,69 @@
+package jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackBenchmarks {
+    private static final Workloads WORKLOADS = Workloads.load();
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    private Path pack;
+
+    // 8 lines per player holding values from 1 to players + 1, as the old harness generated them
+    @Setup(Level.Trial)
+    public void writePack() throws IOException {
+        pack = Files.createTempFile("pack", ".txt");
+        StringBuilder lines = new StringBuilder();
+        Random random = new Random(42);
+        for (int i = 0; i < 8 * players; i++) {
+            lines.append(1 + i / 8 + random.nextInt(2)).append('\n');
+        }
+        Files.writeString(pack, lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void deletePack() throws IOException {
+        Files.delete(pack);
+    }
+
+    // the parser alone, straight into an int array
+    @Benchmark
+    public int[] loadValues() throws Exception {
+        return WORKLOADS.loadValues(pack, players);
+    }
+
+    // what the game deals from: the same values boxed into Card objects
+    @Benchmark
+    public Object loadCards() throws Exception {
+        return WORKLOADS.loadCards(pack, players);
+    }
+}
+
+/*
+JMH benchmark of pack loading, with and without the Card objects the game deals from
+Run with: mvn -B -Pjmh package && java -jar target/benchmarks.jar PackBenchmarks
+*/
@@ -0,0 +1,46 @@
+package jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmarks {
+    private static final Workloads WORKLOADS = Workloads.load();
+
+    @Param({"list", "ring", "offheap"})
+    public String deckType;
+
+    private Workloads.Turn player;
+
+    @Setup(Level.Iteration)
+    public void createPlayer() {
+        player = WORKLOADS.newTurn(deckType);
+    }
+
+    // one Player.drawAndDiscard() with the left deck refilled before and the right deck drained after it
+    @Benchmark
+    public int turn() {
+        return player.turn(); // the discarded card, consumed by JMH
+    }
+}
+
+/*
+JMH benchmark of a single player's turn for every deck type
+Run with: mvn -B -Pjmh package && java -jar target/benchmarks.jar TurnBenchmarks
+*/
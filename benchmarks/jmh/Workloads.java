@@ -0,0 +1,39 @@
+package jmh;
+
+import java.nio.file.Path;
+
+// the game classes live in the default package, which JMH benchmarks cannot be in and named packages cannot
+// import; the benchmarks therefore reach the game through this interface, implemented by benchmarks/GameWorkloads
+public interface Workloads {
+    // a deck shared by one discarding and one drawing thread
+    interface Handoff {
+        // adds a card unless the deck is full, returns the number of cards in the deck
+        int discard();
+
+        // the top card, or the game's EMPTY marker
+        int draw();
+    }
+
+    // one player with both decks, refilled and drained around each turn
+    interface Turn {
+        // plays one turn, returns the card that reached the right deck
+        int turn();
+    }
+
+    Handoff newHandoff(String deckType);
+
+    Turn newTurn(String deckType);
+
+    int[] loadValues(Path pack, int players) throws Exception;
+
+    Object loadCards(Path pack, int players) throws Exception;
+
+    // looked up once per benchmark state, never on the measured path
+    static Workloads load() {
+        try {
+            return (Workloads) Class.forName("GameWorkloads").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("GameWorkloads is missing from the benchmark class path.", e);
+        }
+    }
+}
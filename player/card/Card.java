@@ -9,8 +9,8 @@ public class Card {
         this.value = value;
     }
 
-    //returns the value of the card
-    public synchronized int getValue() {
+    //returns the value of the card, no lock needed as the value is final
+    public int getValue() {
         return value;
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class AsyncConsoleAppenderTest {
+    private final PrintStream console = System.out;
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void captureConsole() {
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    private List<String> lines() {
+        String text = captured.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? List.of() : List.of(text.split(System.lineSeparator()));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void flushWaitsForEveryQueuedLine() {
+        AsyncConsoleAppender appender = new AsyncConsoleAppender(16);
+        for (int i = 0; i < 10; i++) {
+            appender.append("line " + i);
+        }
+        appender.flush();
+        assertEquals(10, lines().size());
+        assertEquals("line 9", lines().get(9));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void wakesUpForLinesQueuedAfterAnIdleSpell() throws InterruptedException {
+        AsyncConsoleAppender appender = new AsyncConsoleAppender(16);
+        appender.append("first");
+        appender.flush();
+        Thread.sleep(50); // the writer is parked now
+        appender.append("second");
+        appender.flush();
+        assertEquals(List.of("first", "second"), lines());
+    }
+
+    // many producers on a ring far smaller than the output, so most of them have to wait for a free slot
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void keepsEveryLineInOrderPerProducerWhenTheRingIsFull() throws InterruptedException {
+        AsyncConsoleAppender appender = new AsyncConsoleAppender(4);
+        int producers = 4;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    appender.append(id + " " + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.flush();
+
+        int[] next = new int[producers];
+        for (String line : lines()) {
+            String[] parts = line.split(" ");
+            int id = Integer.parseInt(parts[0]);
+            assertEquals(next[id]++, Integer.parseInt(parts[1]), "line of producer " + id);
+        }
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, next[p]);
+        }
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncConsoleAppender(12));
+    }
+}
@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import player.card.Card;
+
+class CardGameTest {
+    private static final int PLAYERS = 2;
+
+    // every card is a 3, which neither player prefers, so the game runs until it is stopped
+    private static ArrayList<Card> unwinnablePack() {
+        ArrayList<Card> cards = new ArrayList<>(8 * PLAYERS);
+        for (int i = 0; i < 8 * PLAYERS; i++) {
+            cards.add(new Card(3));
+        }
+        return cards;
+    }
+
+    private static int cardsIn(GameSnapshot snapshot) {
+        int cards = 0;
+        for (int id = 1; id <= PLAYERS; id++) {
+            cards += snapshot.getHand(id).length + snapshot.getDeck(id).length;
+        }
+        return cards;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.RUN_THREAD, GameConfig.RUN_POOL, GameConfig.RUN_LOCKSTEP})
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void snapshotsAGameWhileItRuns(String executor) throws InterruptedException {
+        GameConfig config = new GameConfig().setFileOutput(false).setExecutionMode(executor);
+        CardGame game = CardGame.prepare(PLAYERS, new CardDeck(unwinnablePack(), 1L), config);
+        assertEquals(0, game.snapshot().getTotalTurns()); // dealt, nobody has moved yet
+        game.start();
+
+        GameSnapshot snapshot = game.snapshot();
+        while (!snapshot.isConsistent() || snapshot.getTotalTurns() < 100) {
+            Thread.sleep(1);
+            snapshot = game.snapshot(snapshot);
+        }
+        assertEquals(0, snapshot.getWinnerId());
+        assertEquals(8 * PLAYERS, cardsIn(snapshot));
+
+        game.stop();
+        game.awaitEnd();
+        assertEquals(0, game.getWinnerId());
+        assertTrue(game.getTotalTurns() >= snapshot.getTotalTurns());
+    }
+}
@@ -0,0 +1,133 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import player.card.Card;
+
+// the list, ring and off-heap decks must behave the same, whichever the game is configured with
+class DeckTest {
+
+    private static Deck deck(String type, int deckNumber) {
+        return new GameConfig().setDeckType(type).setFileOutput(false).newDeck(deckNumber);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void drawsFromTheTopAndAddsToTheBottom(String type) {
+        Deck deck = deck(type, 1);
+        assertEquals(Deck.EMPTY, deck.drawTopValue());
+        assertNull(deck.drawTopCard());
+        deck.addBottomValues(new int[]{1, 2, 3}, 3);
+        deck.addBottomCard(new Card(4));
+        assertEquals(4, deck.getDeckSize());
+        assertEquals("1 2 3 4", deck.getValueString());
+        assertEquals(1, deck.drawTopValue());
+        assertEquals(2, deck.drawTopCard().getValue());
+        assertArrayEquals(new int[]{3, 4}, deck.getValues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void keepsOrderWhileWrappingAroundTheRing(String type) {
+        Deck deck = deck(type, 1);
+        int next = 0;
+        int expected = 0;
+        deck.addBottomValues(new int[]{next++, next++, next++}, 3);
+        for (int round = 0; round < 50; round++) { // the ring holds 8, so positions wrap many times
+            deck.addBottomValue(next++);
+            deck.addBottomValue(next++);
+            assertEquals(expected++, deck.drawTopValue());
+            assertEquals(expected++, deck.drawTopValue());
+        }
+        assertEquals(3, deck.getDeckSize());
+        assertArrayEquals(new int[]{expected, expected + 1, expected + 2}, deck.getValues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void drawAndDiscardMovesOneCardUnlessBlocked(String type) {
+        Deck left = deck(type, 1);
+        Deck right = deck(type, 2);
+        assertEquals(Deck.EMPTY, left.drawAndDiscard(right, Player.MAX_DECK_SIZE, drawn -> drawn)); // nothing to draw
+        left.addBottomValues(new int[]{7, 8}, 2);
+        right.addBottomValues(new int[]{1, 1, 1, 1}, 4);
+        assertEquals(7, left.drawAndDiscard(right, Player.MAX_DECK_SIZE, drawn -> 9));
+        assertArrayEquals(new int[]{8}, left.getValues());
+        assertArrayEquals(new int[]{1, 1, 1, 1, 9}, right.getValues());
+        assertEquals(Deck.EMPTY, left.drawAndDiscard(right, Player.MAX_DECK_SIZE, drawn -> 9)); // right is full
+        assertArrayEquals(new int[]{8}, left.getValues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void notifiesTheNeighbouringPlayers(String type) {
+        Deck deck = deck(type, 1);
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger drawn = new AtomicInteger();
+        deck.setOnCardAdded(added::incrementAndGet);
+        deck.setOnCardDrawn(drawn::incrementAndGet);
+        deck.addBottomValue(5);
+        deck.drawTopValue();
+        assertEquals(1, added.get());
+        assertEquals(1, drawn.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void assignCardInsertsAtAPositionFromTheTop(String type) {
+        Deck deck = deck(type, 1);
+        deck.addBottomValues(new int[]{9, 9, 9, 9, 9, 9}, 6);
+        for (int i = 0; i < 6; i++) {
+            deck.drawTopValue(); // the ring's head is now past the end of its slots, so the shift wraps
+        }
+        deck.assignCard(new Card(2), 0);
+        deck.assignCard(new Card(4), 1);
+        deck.assignCard(new Card(1), 0);
+        deck.assignCard(new Card(3), 2);
+        deck.assignCard(new Card(5), 4);
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, deck.getValues());
+        assertEquals(1, deck.drawTopValue());
+        assertThrows(IndexOutOfBoundsException.class, () -> deck.assignCard(new Card(6), 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> deck.assignCard(new Card(6), -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP})
+    void ringDecksRefuseMoreCardsThanTheyHold(String type) {
+        Deck deck = deck(type, 1);
+        int[] cards = new int[RingDeck.DEFAULT_CAPACITY];
+        deck.addBottomValues(cards, cards.length);
+        assertThrows(IllegalStateException.class, () -> deck.addBottomValue(1));
+        deck.drawTopValue();
+        assertThrows(IllegalStateException.class, () -> deck.addBottomValues(new int[]{1, 2}, 2));
+        deck.addBottomValue(1);
+        assertThrows(IllegalStateException.class, () -> deck.assignCard(new Card(2), 0));
+    }
+
+    @Test
+    void ringCapacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingDeck(1, 6, false));
+        assertThrows(IllegalArgumentException.class, () -> new DeckArena(4, 0));
+    }
+
+    @Test
+    void offHeapDecksShareOneArena() {
+        DeckArena arena = new DeckArena(2);
+        List<Deck> decks = new ArrayList<>();
+        for (int d = 1; d <= 2; d++) {
+            decks.add(new GameConfig().setDeckType(GameConfig.DECK_OFFHEAP).setFileOutput(false).newDeck(d, arena));
+        }
+        decks.get(0).addBottomValue(1);
+        decks.get(1).addBottomValue(2);
+        assertArrayEquals(new int[]{1}, decks.get(0).getValues());
+        assertArrayEquals(new int[]{2}, decks.get(1).getValues());
+        assertThrows(IllegalStateException.class, arena::allocate);
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class DiscardStrategyTest {
+
+    private static Hand handOf(int preferredValue, int... values) {
+        Hand hand = new Hand(preferredValue);
+        for (int value : values) {
+            hand.add(value);
+        }
+        return hand;
+    }
+
+    @Test
+    void firstGivesAwayTheOldestNonPreferredCard() {
+        assertEquals(1, DiscardStrategy.first().chooseDiscard(handOf(1, 1, 3, 2, 1, 2)));
+    }
+
+    @Test
+    void neighbourGivesAwayTheRightNeighboursCardFirst() {
+        DiscardStrategy strategy = DiscardStrategy.neighbour(1, 3);
+        assertEquals(2, strategy.chooseDiscard(handOf(1, 1, 3, 2, 1, 3)));
+        assertEquals(1, strategy.chooseDiscard(handOf(1, 1, 3, 3, 1, 1))); // nothing for player 2, the oldest goes
+    }
+
+    @Test
+    void neighbourOfTheLastPlayerIsPlayerOne() {
+        assertEquals(3, DiscardStrategy.neighbour(3, 3).chooseDiscard(handOf(3, 3, 2, 3, 1, 3)));
+    }
+
+    @Test
+    void aSinglePlayerIsItsOwnNeighbour() {
+        assertEquals(1, DiscardStrategy.neighbour(1, 1).chooseDiscard(handOf(1, 1, 5, 1, 1, 1)));
+    }
+
+    @Test
+    void nearestOwnerPicksTheClosestPlayerDownstream() {
+        DiscardStrategy strategy = DiscardStrategy.nearestOwner(2, 5);
+        assertEquals(1, strategy.chooseDiscard(handOf(2, 2, 4, 1, 2, 5))); // 4 is two seats away, 5 three, 1 four
+        assertEquals(2, strategy.chooseDiscard(handOf(2, 9, 1, 3, 2, 2))); // nobody prefers 9, it goes last
+    }
+
+    @Test
+    void nearestOwnerBreaksTiesTowardsTheOldestCard() {
+        assertEquals(0, DiscardStrategy.nearestOwner(1, 4).chooseDiscard(handOf(1, 3, 1, 3, 1, 1)));
+    }
+
+    @Test
+    void everyStrategyPicksANonPreferredCardWhenThereIsOne() {
+        Hand hand = handOf(4, 4, 4, 4, 7, 4);
+        for (DiscardStrategy strategy : new DiscardStrategy[]{
+                DiscardStrategy.first(), DiscardStrategy.neighbour(4, 6), DiscardStrategy.nearestOwner(4, 6)}) {
+            assertEquals(3, strategy.chooseDiscard(hand));
+        }
+    }
+}
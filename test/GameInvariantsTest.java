@@ -0,0 +1,106 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import player.card.Card;
+
+// the checks of benchmarks/StressSuite at sizes the default build can afford on every run
+class GameInvariantsTest {
+    private static final long SEED = 42;
+
+    static List<Arguments> games() {
+        List<Arguments> games = new ArrayList<>();
+        for (String deckType : new String[]{GameConfig.DECK_LIST, GameConfig.DECK_RING, GameConfig.DECK_OFFHEAP}) {
+            for (String executor : new String[]{GameConfig.RUN_THREAD, GameConfig.RUN_POOL, GameConfig.RUN_LOCKSTEP}) {
+                for (int players : new int[]{1, 2, 3, 10, 100}) {
+                    games.add(Arguments.of(deckType, executor, players));
+                }
+            }
+        }
+        return games;
+    }
+
+    // 8 copies of every value 1..players, anyone can win
+    private static ArrayList<Card> winnablePack(int players) {
+        ArrayList<Card> cards = new ArrayList<>(8 * players);
+        for (int i = 0; i < 8 * players; i++) {
+            cards.add(new Card(1 + i / 8));
+        }
+        return cards;
+    }
+
+    // only 4 copies of each value and 4 cards per player nobody prefers, a player needs every copy of its value
+    private static ArrayList<Card> adversarialPack(int players) {
+        ArrayList<Card> cards = new ArrayList<>(8 * players);
+        for (int i = 0; i < 8 * players; i++) {
+            cards.add(new Card(i < 4 * players ? 1 + i / 4 : players + 1));
+        }
+        return cards;
+    }
+
+    private static int[] countValues(List<Card> pack, int players) {
+        int[] counts = new int[players + 2];
+        for (Card card : pack) {
+            counts[card.getValue()]++;
+        }
+        return counts;
+    }
+
+    private static CardGame play(ArrayList<Card> pack, int players, String deckType, String executor) {
+        GameConfig config = new GameConfig().setFileOutput(false).setMetrics(true)
+                .setDeckType(deckType).setExecutionMode(executor);
+        return new CardGame(players, new CardDeck(pack, SEED + players), config);
+    }
+
+    // every card dealt is still in a hand or a deck, no deck ever held more than 5 and the one winner holds 4 of its value
+    private static void assertInvariants(CardGame game, int[] dealt) {
+        int[] left = new int[dealt.length];
+        for (Player player : game.getPlayers()) {
+            List<Card> hand = player.getHand();
+            assertEquals(Hand.WINNING_SIZE, hand.size(), "cards held by Player " + player.getPlayerId());
+            hand.forEach(card -> left[card.getValue()]++);
+        }
+        for (Deck deck : game.getDecks()) {
+            int[] values = deck.getValues();
+            assertTrue(values.length <= Player.MAX_DECK_SIZE, "Deck " + deck.getDeckNumber() + " ended with " + values.length + " cards");
+            for (int value : values) {
+                left[value]++;
+            }
+        }
+        for (int value = 0; value < dealt.length; value++) {
+            assertEquals(dealt[value], left[value], "cards of value " + value);
+        }
+        assertTrue(game.getMetrics().getMaxDeckDepth() <= Player.MAX_DECK_SIZE,
+                "a deck reached " + game.getMetrics().getMaxDeckDepth() + " cards during play");
+
+        int winnerId = game.getWinnerId();
+        assertTrue(winnerId >= 1 && winnerId <= game.getPlayers().size(), "winner id " + winnerId);
+        for (Card card : game.getPlayers().get(winnerId - 1).getHand()) {
+            assertEquals(winnerId, card.getValue(), "a card in the winner's hand");
+        }
+    }
+
+    @ParameterizedTest(name = "{2} players, {0} decks, {1}")
+    @MethodSource("games")
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void winnableGamesKeepTheInvariants(String deckType, String executor, int players) {
+        ArrayList<Card> pack = winnablePack(players);
+        int[] dealt = countValues(pack, players);
+        assertInvariants(play(pack, players, deckType, executor), dealt);
+    }
+
+    @ParameterizedTest(name = "{2} players, {0} decks, {1}")
+    @MethodSource("games")
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void adversarialGamesKeepTheInvariants(String deckType, String executor, int players) {
+        ArrayList<Card> pack = adversarialPack(players);
+        int[] dealt = countValues(pack, players);
+        assertInvariants(play(pack, players, deckType, executor), dealt);
+    }
+}
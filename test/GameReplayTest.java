@@ -0,0 +1,67 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import player.card.Card;
+
+class GameReplayTest {
+    @TempDir
+    Path directory;
+
+    private static ArrayList<Card> winnablePack(int players) {
+        ArrayList<Card> cards = new ArrayList<>(8 * players);
+        for (int i = 0; i < 8 * players; i++) {
+            cards.add(new Card(1 + i / 8));
+        }
+        return cards;
+    }
+
+    @Test
+    void replayEndsInTheRecordedGamesFinalState() throws Exception {
+        Path recording = directory.resolve("game.rec");
+        GameConfig config = new GameConfig().setFileOutput(false).setExecutionMode(GameConfig.RUN_LOCKSTEP)
+                .setRecordFile(recording.toString());
+        CardGame game = new CardGame(6, new CardDeck(winnablePack(6), 7L), config);
+
+        GameReplay replay = GameReplay.fromFile(recording);
+        assertEquals(6, replay.getNumPlayers());
+        assertEquals(game.getWinnerId(), replay.replay());
+        assertEquals(game.getTotalTurns(), replay.getMoveCount());
+        for (Player player : game.getPlayers()) {
+            int[] hand = player.getHand().stream().mapToInt(Card::getValue).toArray();
+            assertArrayEquals(hand, replay.getHand(player.getPlayerId()));
+        }
+        for (Deck deck : game.getDecks()) {
+            assertArrayEquals(deck.getValues(), replay.getDeck(deck.getDeckNumber()));
+        }
+    }
+
+    @Test
+    void rejectsAMoveThatWasNotPossible() {
+        int[] pack = {1, 1, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 1, 2, 1, 2}; // two players, 4 cards in each hand and deck
+        MoveRecorder recorder = new MoveRecorder(2, pack);
+        recorder.recordMove(2, 0);
+        recorder.recordMove(3, 0); // there is no player 3
+        GameReplay replay = new GameReplay(recorder.toByteArray());
+        IllegalStateException e = assertThrows(IllegalStateException.class, replay::replay);
+        assertTrue(e.getMessage().startsWith("Move 2 "), e.getMessage());
+    }
+
+    @Test
+    void rejectsAWinnerWithoutAWinningHand() {
+        int[] pack = {1, 1, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 1, 2, 1, 2};
+        MoveRecorder recorder = new MoveRecorder(2, pack);
+        recorder.recordWinner(1); // player 1 still holds 1 1 1 2
+        assertThrows(IllegalStateException.class, () -> new GameReplay(recorder.toByteArray()).replay());
+    }
+
+    @Test
+    void rejectsSomethingThatIsNotARecording() {
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(new byte[]{1, 2, 3, 4, 0}));
+    }
+}
@@ -0,0 +1,70 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class HandTest {
+
+    private static Hand handOf(int preferredValue, int... values) {
+        Hand hand = new Hand(preferredValue);
+        for (int value : values) {
+            hand.add(value);
+        }
+        return hand;
+    }
+
+    @Test
+    void keepsCardsInTheOrderTheyArrived() {
+        Hand hand = handOf(1, 4, 1, 3, 2);
+        assertEquals(4, hand.size());
+        assertArrayEquals(new int[]{4, 1, 3, 2}, Arrays.copyOf(hand.values(), hand.size()));
+    }
+
+    @Test
+    void removeAtShiftsLaterCardsAndTheirBookkeeping() {
+        Hand hand = handOf(1, 1, 2, 1, 3, 4);
+        assertEquals(2, hand.removeAt(1));
+        assertArrayEquals(new int[]{1, 1, 3, 4}, Arrays.copyOf(hand.values(), hand.size()));
+        assertEquals(2, hand.getPreferredCount());
+        assertFalse(hand.isOther(0));
+        assertFalse(hand.isOther(1));
+        assertTrue(hand.isOther(2));
+        assertTrue(hand.isOther(3));
+        assertEquals(2, hand.discardIndex());
+    }
+
+    @Test
+    void discardIndexIsTheOldestNonPreferredCard() {
+        assertEquals(1, handOf(7, 7, 5, 6, 7, 8).discardIndex());
+        assertEquals(0, handOf(7, 7, 7, 7, 7, 7).discardIndex()); // all preferred, the first card goes
+    }
+
+    @Test
+    void winsOnlyWithFourPreferredCards() {
+        assertTrue(handOf(2, 2, 2, 2, 2).isWinning());
+        assertFalse(handOf(2, 2, 2, 2, 3).isWinning());
+        assertFalse(handOf(2, 2, 2, 2, 2, 2).isWinning()); // five cards while a drawn card is held
+    }
+
+    @Test
+    void oldestOtherAgeCountsCardsReceivedSince() {
+        Hand hand = handOf(1, 1, 9, 1, 1);
+        assertEquals(3, hand.oldestOtherAge());
+        hand.add(1);
+        assertEquals(4, hand.oldestOtherAge());
+        hand.removeAt(hand.discardIndex());
+        assertEquals(0, hand.oldestOtherAge());
+    }
+
+    @Test
+    void rejectsASixthCardAndBadIndexes() {
+        Hand hand = handOf(1, 1, 2, 3, 4, 5);
+        assertThrows(IllegalStateException.class, () -> hand.add(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> hand.removeAt(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> hand.removeAt(-1));
+    }
+}
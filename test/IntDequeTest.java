@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IntDequeTest {
+
+    private static int[] contents(IntDeque deque) {
+        int[] values = new int[deque.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = deque.get(i);
+        }
+        return values;
+    }
+
+    @Test
+    void staysFirstInFirstOutAcrossWrapAndGrowth() {
+        IntDeque deque = new IntDeque(2);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 3; i++) {
+                deque.addLast(next++);
+            }
+            for (int i = 0; i < 2; i++) {
+                assertEquals(expected++, deque.removeFirst());
+            }
+        }
+        assertEquals(next - expected, deque.size());
+        for (int i = 0; i < deque.size(); i++) {
+            assertEquals(expected + i, deque.get(i));
+        }
+    }
+
+    @Test
+    void insertShiftsLaterValuesBack() {
+        IntDeque deque = new IntDeque(4);
+        deque.addLast(9);
+        deque.removeFirst(); // head is no longer at index 0, so inserts have to wrap
+        deque.addLast(1);
+        deque.addLast(3);
+        deque.insert(1, 2);
+        deque.insert(0, 0);
+        deque.insert(4, 4); // at the end, grows the buffer
+        assertEquals(5, deque.size());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, contents(deque));
+    }
+
+    @Test
+    void rejectsReadsOutsideTheValues() {
+        IntDeque deque = new IntDeque(0);
+        assertTrue(deque.isEmpty());
+        assertThrows(IllegalStateException.class, deque::removeFirst);
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.insert(1, 5));
+        deque.addLast(5);
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+    }
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void isEmptyUntilSomethingIsRecorded() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(55, histogram.getSum());
+        assertEquals(5.5, histogram.getMean());
+        assertEquals(5, histogram.getPercentile(50));
+        assertEquals(10, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(10, histogram.getMax());
+    }
+
+    @Test
+    void largeValuesAreWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = {100, 1_000, 12_345, 1_000_000, 987_654_321, 3_600_000_000_000L};
+        for (long value : values) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.record(value);
+            single.record(Long.MAX_VALUE / 2); // keeps the max from capping the percentile
+            long reported = single.getPercentile(50);
+            assertTrue(reported <= value && reported >= value * 0.97, value + " reported as " + reported);
+            histogram.record(value);
+        }
+        assertEquals(3_600_000_000_000L, histogram.getMax());
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getSum());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void percentilesNeverExceedTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getMax());
+        assertTrue(histogram.getPercentile(100) <= 1_000_001);
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTextFileTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void closeLeavesExactlyTheBytesWritten() throws IOException {
+        Path file = directory.resolve("log.txt");
+        try (MappedTextFile out = new MappedTextFile(file, 4096)) {
+            out.write(ascii("Player 1 initial hand: 1 2 3 4\n\n"));
+            out.write('x');
+        }
+        assertEquals("Player 1 initial hand: 1 2 3 4\n\nx", read(file));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.collect(Collectors.toList())); // no temporary file left behind
+        }
+    }
+
+    @Test
+    void growsPastTheInitialMapping() throws IOException {
+        Path file = directory.resolve("log.txt");
+        StringBuilder expected = new StringBuilder();
+        try (MappedTextFile out = new MappedTextFile(file, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                String line = "line " + i + "\n";
+                out.write(ascii(line));
+                expected.append(line);
+            }
+        }
+        assertEquals(expected.toString(), read(file));
+    }
+
+    @Test
+    void appendKeepsWhatTheFileHeld() throws IOException {
+        Path file = Files.write(directory.resolve("log.txt"), ascii("first\n"));
+        try (MappedTextFile out = new MappedTextFile(file, 64, true)) {
+            out.write(ascii("second\n"));
+        }
+        try (MappedTextFile out = new MappedTextFile(file, 64, true)) {
+            out.write(ascii("third\n"));
+        }
+        assertEquals("first\nsecond\nthird\n", read(file));
+    }
+
+    @Test
+    void withoutAppendTheFileStartsEmpty() throws IOException {
+        Path file = Files.write(directory.resolve("log.txt"), ascii("old contents\n"));
+        try (MappedTextFile out = new MappedTextFile(file, 64)) {
+            out.write(ascii("new\n"));
+        }
+        assertEquals("new\n", read(file));
+    }
+
+    @Test
+    void rewriteReplacesLongerContents() throws IOException {
+        Path file = directory.resolve("deck1_output.txt");
+        try (MappedTextFile out = new MappedTextFile(file, 64)) {
+            out.rewrite(ascii("deck1 contents: 1 2 3 4 5"), 25);
+            out.rewrite(ascii("deck1 contents: 6"), 17);
+        }
+        assertEquals("deck1 contents: 6", read(file));
+    }
+
+    @Test
+    void refusesWritesOnceClosed() throws IOException {
+        MappedTextFile out = new MappedTextFile(directory.resolve("log.txt"), 64);
+        out.close();
+        out.close(); // a second close does nothing
+        assertThrows(IOException.class, () -> out.write(ascii("late\n")));
+    }
+}
@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PackLoaderTest {
+    @TempDir
+    Path directory;
+
+    private Path pack(String contents) throws IOException {
+        return Files.write(directory.resolve("pack.txt"), contents.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // a valid single player pack with the given text in place of its third line
+    private Path packWithLine3(String line) throws IOException {
+        return pack("1\n2\n" + line + "\n4\n5\n6\n7\n8\n");
+    }
+
+    private static InvalidPackException rejected(Path file) {
+        return assertThrows(InvalidPackException.class, () -> PackLoader.load(file, 1));
+    }
+
+    @Test
+    void loadsValuesInFileOrder() throws Exception {
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, PackLoader.load(packWithLine3("3"), 1));
+    }
+
+    @Test
+    void acceptsWindowsLineEndingsAndAMissingLastNewline() throws Exception {
+        int[] expected = {1, 2, 3, 4, 5, 6, 7, 8};
+        assertArrayEquals(expected, PackLoader.load(pack("1\r\n2\r\n3\r\n4\r\n5\r\n6\r\n7\r\n8\r\n"), 1));
+        assertArrayEquals(expected, PackLoader.load(pack("1\n2\n3\n4\n5\n6\n7\n8"), 1));
+    }
+
+    @Test
+    void loadCardsKeepsTheValues() throws Exception {
+        assertEquals(3, PackLoader.loadCards(packWithLine3("3"), 1).get(2).getValue());
+    }
+
+    @Test
+    void reportsTheLineOfABadValue() throws Exception {
+        InvalidPackException e = rejected(packWithLine3("x"));
+        assertEquals(3, e.getLineNumber());
+        assertEquals("Line 3: not a non-negative integer.", e.getMessage());
+        assertEquals(3, rejected(packWithLine3("")).getLineNumber());
+        assertEquals(3, rejected(packWithLine3("3 ")).getLineNumber());
+        assertEquals(3, rejected(packWithLine3("1\r2")).getLineNumber()); // a carriage return only ends a line
+        assertEquals(3, rejected(packWithLine3("2147483648")).getLineNumber());
+    }
+
+    @Test
+    void rejectsNegativeValues() throws Exception {
+        InvalidPackException e = rejected(packWithLine3("-3"));
+        assertEquals("Line 3: negative card values are not allowed.", e.getMessage());
+    }
+
+    // the old loader used Integer.parseInt and only refused values below 0
+    @Test
+    void acceptsTheSignsIntegerParseIntAccepts() throws Exception {
+        assertEquals(5, PackLoader.load(packWithLine3("+5"), 1)[2]);
+        assertEquals(0, PackLoader.load(packWithLine3("-0"), 1)[2]);
+        assertEquals(0, PackLoader.load(packWithLine3("-000"), 1)[2]);
+        assertEquals(0, PackLoader.load(packWithLine3("+0"), 1)[2]);
+    }
+
+    @Test
+    void rejectsSignsIntegerParseIntRejects() throws Exception {
+        for (String line : new String[]{"+", "-", "++5", "+-5", "-+5", "5+", "5-", "0-0"}) {
+            assertEquals(3, rejected(packWithLine3(line)).getLineNumber(), line);
+        }
+        assertEquals("Line 3: negative card values are not allowed.", rejected(packWithLine3("-05")).getMessage());
+        assertEquals("Line 3: negative card values are not allowed.", rejected(packWithLine3("-2147483649")).getMessage());
+    }
+
+    @Test
+    void acceptsTheLargestInt() throws Exception {
+        assertEquals(Integer.MAX_VALUE, PackLoader.load(packWithLine3("2147483647"), 1)[2]);
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfLines() throws Exception {
+        InvalidPackException e = rejected(pack("1\n2\n3\n"));
+        assertEquals(0, e.getLineNumber());
+        assertEquals("File must contain exactly 8 lines, found 3.", e.getMessage());
+        assertEquals("File must contain exactly 8 lines, found 9.", rejected(pack("1\n2\n3\n4\n5\n6\n7\n8\n9\n")).getMessage());
+    }
+
+    @Test
+    void rejectsPlayerCountsWithoutAPack() throws Exception {
+        Path file = packWithLine3("3");
+        assertThrows(IllegalArgumentException.class, () -> PackLoader.load(file, 0));
+        assertThrows(InvalidPackException.class, () -> PackLoader.load(file, Integer.MAX_VALUE));
+    }
+}
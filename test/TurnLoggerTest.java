@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TurnLoggerTest {
+    @TempDir
+    Path directory;
+
+    private String read(TurnLogger logger, int playerId) throws IOException {
+        return new String(Files.readAllBytes(Path.of(logger.logFileName(playerId))), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void writesTheLinesOfAPlayersGame() throws IOException {
+        TurnLogger logger = new TurnLogger(true, directory.toString());
+        logger.openLogs(1, 2);
+        logger.logInitialState(1, new int[]{1, 2, 3, 4}, 4);
+        logger.logTurn(1, 1, 1, 2, 2, new int[]{1, 3, 4, 1}, 4);
+        logger.logGameEnd(1, true, 1, new int[]{1, 1, 1, 1}, 4);
+        logger.logGameEnd(2, false, 1, new int[]{2, 2, 3, 2}, 4);
+        logger.close();
+        assertEquals("Player 1 initial hand: 1 2 3 4\n\n"
+                + "Player 1 draws 1 from Deck 1\nPlayer 1 discards 2 to Deck 2\nCurrent Hand: 1 3 4 1\n\n"
+                + "Player 1 wins the game!\nFinal hand: 1 1 1 1\n", read(logger, 1));
+        assertEquals("Player 1 has won. Player 2 exits.\nFinal hand: 2 2 3 2\n", read(logger, 2));
+    }
+
+    @Test
+    void openLogsCreatesEmptyLogsUpFront() throws IOException {
+        Path stale = Files.writeString(directory.resolve("player_3_log.txt"), "an older game\n");
+        TurnLogger logger = new TurnLogger(true, directory.toString());
+        logger.openLogs(1, 3);
+        assertEquals("", Files.readString(stale)); // before anything is logged
+        logger.close();
+        assertTrue(Files.exists(Path.of(logger.logFileName(1))));
+    }
+
+    // far more records than the queue holds, from a producer that is interrupted half way, as players are at the end
+    @Test
+    void keepsEveryRecordWhenTheQueueFillsUp() throws Exception {
+        TurnLogger logger = new TurnLogger(true, directory.toString());
+        logger.openLogs(1, 1);
+        int turns = 50_000;
+        Thread player = new Thread(() -> {
+            logger.logInitialState(1, new int[]{1, 1, 1, 2}, 4);
+            for (int i = 0; i < turns; i++) {
+                if (i == turns / 2) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.logTurn(1, 2, 1, 2, 2, new int[]{1, 1, 1, 2}, 4);
+            }
+        });
+        player.start();
+        player.join();
+        logger.close();
+        String log = read(logger, 1);
+        assertEquals(turns, log.split("draws", -1).length - 1);
+    }
+
+    @Test
+    void recordsAfterCloseAreDropped() throws IOException {
+        TurnLogger logger = new TurnLogger(true, directory.toString());
+        logger.openLogs(1, 1);
+        logger.close();
+        logger.logInitialState(1, new int[]{1, 2, 3, 4}, 4);
+        assertEquals("", read(logger, 1));
+    }
+}